@@ -0,0 +1,69 @@
+package boggle;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class holds the results of a batch of Boggle grids, in the order of the grids, along with the time taken to compute them
+ * @author Maxime Cao
+ *
+ * @param <T> The type of the result of each grid
+ */
+public class BatchResult<T> {
+	private final List<T> results;
+	private final long durationNanos;
+
+	/**
+	 * This constructor creates a batch result
+	 * @param results The result of each grid
+	 * @param durationNanos The time taken by the whole batch, in nanoseconds
+	 */
+	public BatchResult(List<T> results, long durationNanos) {
+		this.results = Collections.unmodifiableList(results);
+		this.durationNanos = durationNanos;
+	}
+
+	/**
+	 * Get the results, in the order of the grids
+	 * @return The result of each grid
+	 */
+	public List<T> getResults() {
+		return results;
+	}
+
+	/**
+	 * Get the result of a grid
+	 * @param index The position of the grid in the batch
+	 * @return The result of the grid
+	 */
+	public T getResult(int index) {
+		return results.get(index);
+	}
+
+	/**
+	 * Get the number of grids in the batch
+	 * @return The number of grids
+	 */
+	public int size() {
+		return results.size();
+	}
+
+	/**
+	 * Get the time taken by the whole batch
+	 * @return The duration in nanoseconds
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Get the throughput of the batch
+	 * @return The number of grids processed per second
+	 */
+	public double getGridsPerSecond() {
+		if (durationNanos == 0) {
+			return 0;
+		}
+		return results.size() * 1_000_000_000.0 / durationNanos;
+	}
+}
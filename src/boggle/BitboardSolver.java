@@ -0,0 +1,301 @@
+package boggle;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class solves small Boggle grids (up to 64 cells, such as 4x4, 5x5 or 8x8) with bitboards : the visited cells, the neighbors of a cell and the cells of each letter are 64-bit masks.
+ * For each child letter of the current node, the next cells are neighborMask[cell] & letterMask[letter] & ~visited, found all at once,
+ * and the tree is only consulted once per letter instead of once per neighbor.
+ * @author Maxime Cao
+ *
+ */
+public class BitboardSolver {
+	private static final int MIN_WORD_LENGTH = 3;
+	private static final int MAX_CELLS = Long.SIZE;
+	// Each node takes three consecutive ints : its child mask, the index of its first child and its word identifier
+	private static final int NODE_SIZE = 3;
+	private static final int CHILD_MASK = 0;
+	private static final int FIRST_CHILD = 1;
+	private static final int WORD_ID = 2;
+
+	private final CompactTree dictionnary;
+	private final int[] nodes;
+	private final ThreadLocal<BoardState> states;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates a solver bound to a dictionary
+	 * @param dict A dictionary of allowed words
+	 */
+	public BitboardSolver(LexicographicTree dict) {
+		if(dict == null) {
+			throw new NullPointerException("Please provide non null dictionnary");
+		}
+
+		if(dict.size() == 0) {
+			throw new IllegalArgumentException("Please provide a correct dictionnary");
+		}
+
+		dictionnary = dict.getCompactTree();
+		nodes = buildNodes(dictionnary);
+		states = ThreadLocal.withInitial(() -> new BoardState(dictionnary.wordCount()));
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Searches for words in a Boggle grid.
+	 * @param size The size of the squared grid, 8 at most
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the set of found words
+	 */
+	public Set<String> solve(int size, String letters) {
+		return solve(Topology.square(size), letters);
+	}
+
+	/**
+	 * Searches for words in a Boggle grid of any shape.
+	 * @param topology The shape of the grid, 64 cells at most
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @return the set of found words
+	 */
+	public Set<String> solve(Topology topology, String letters) {
+		BoardState state = explore(topology, letters);
+		Set<String> wordsFound = new TreeSet<>();
+		for(int i = 0; i < state.foundCount; i++) {
+			wordsFound.add(dictionnary.word(state.foundIds[i]));
+		}
+		return wordsFound;
+	}
+
+	/**
+	 * Counts the words in a Boggle grid without building them.
+	 * @param size The size of the squared grid, 8 at most
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the number of found words
+	 */
+	public int count(int size, String letters) {
+		return count(Topology.square(size), letters);
+	}
+
+	/**
+	 * Counts the words in a Boggle grid of any shape without building them.
+	 * @param topology The shape of the grid, 64 cells at most
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @return the number of found words
+	 */
+	public int count(Topology topology, String letters) {
+		return explore(topology, letters).foundCount;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Copies the tree into one array where the data read at each step of the search are side by side.
+	 * Children being stored one after the other, the child of a letter is the first child plus the number of smaller letters in the child mask.
+	 * Words shorter than the minimum length are not marked, so that the search does not have to check the length.
+	 * @param tree The compacted dictionary
+	 * @return The nodes of the tree, NODE_SIZE ints per node, node indexes being multiplied by NODE_SIZE
+	 */
+	private static int[] buildNodes(CompactTree tree) {
+		int[] nodes = new int[tree.nodeCount() * NODE_SIZE];
+		for(int node = 0; node < tree.nodeCount(); node++) {
+			int childMask = tree.childMask(node);
+			int base = node * NODE_SIZE;
+			nodes[base + CHILD_MASK] = childMask;
+			nodes[base + FIRST_CHILD] = childMask == 0 ? CompactTree.NO_NODE : tree.child(node, Integer.numberOfTrailingZeros(childMask)) * NODE_SIZE;
+			nodes[base + WORD_ID] = tree.depth(node) >= MIN_WORD_LENGTH ? tree.wordId(node) : CompactTree.NO_WORD;
+		}
+		return nodes;
+	}
+
+	/**
+	 * Loads a grid in the bitboards of the current thread and finds all its words
+	 * @param topology The shape of the grid
+	 * @param letters The letters of the grid
+	 * @return The state of the current thread, holding the identifiers of the found words
+	 */
+	private BoardState explore(Topology topology, String letters) {
+		BoardState state = states.get();
+		state.load(topology, letters);
+		for(int cell = 0; cell < state.cellCount; cell++) {
+			int node = dictionnary.child(CompactTree.ROOT, state.cells[cell]);
+			if(node != CompactTree.NO_NODE) {
+				exploreFrom(state, cell, node * NODE_SIZE, 1L << cell);
+			}
+		}
+		return state;
+	}
+
+	/**
+	 * Finds all words starting with the letters of a path
+	 * @param state The bitboards of the current thread
+	 * @param cell Last cell of the path
+	 * @param node Index in nodes of the node of the letters of the path
+	 * @param visited Cells of the path
+	 */
+	private void exploreFrom(BoardState state, int cell, int node, long visited) {
+		int[] nodes = this.nodes;
+		int wordId = nodes[node + WORD_ID];
+		if(wordId != CompactTree.NO_WORD) {
+			state.addWord(wordId);
+		}
+
+		int childMask = nodes[node + CHILD_MASK];
+		long reachable = state.neighborMasks[cell] & ~visited;
+		int letters = childMask & state.neighborLetters[cell];
+		while(letters != 0 && reachable != 0) {
+			int bit = letters & -letters;
+			letters ^= bit;
+			long candidates = reachable & state.letterMasks[Integer.numberOfTrailingZeros(bit)];
+			if(candidates != 0) {
+				int next = nodes[node + FIRST_CHILD] + Integer.bitCount(childMask & (bit - 1)) * NODE_SIZE;
+				do {
+					int nextCell = Long.numberOfTrailingZeros(candidates);
+					candidates &= candidates - 1;
+					exploreFrom(state, nextCell, next, visited | (1L << nextCell));
+				} while(candidates != 0);
+			}
+		}
+	}
+
+	/**
+	 * This class holds the bitboards used by one thread to solve grids one after the other
+	 */
+	private static final class BoardState {
+		private final long[] wordsFound;
+		private int[] foundIds = new int[64];
+		private int foundCount;
+		private final byte[] cells = new byte[MAX_CELLS];
+		private final long[] letterMasks = new long[CompactTree.ALPHABET_SIZE];
+		private final long[] neighborMasks = new long[MAX_CELLS];
+		private final int[] neighborLetters = new int[MAX_CELLS];
+		private int cellCount;
+		private Topology topology;
+
+		/**
+		 * This constructor allocates the buffers for a dictionary
+		 * @param wordCount The number of words of the dictionary
+		 */
+		private BoardState(int wordCount) {
+			wordsFound = new long[(wordCount + 63) / 64];
+		}
+
+		/**
+		 * Builds the bitboards of a grid and forgets the words found in the previous grid
+		 * @param topology The shape of the grid
+		 * @param letters The letters of the grid, extra letters are ignored
+		 */
+		private void load(Topology topology, String letters) {
+			int sizeGrid = topology.getCellCount();
+			if(sizeGrid > MAX_CELLS) {
+				throw new IllegalArgumentException("Please provide a grid of 64 cells at most");
+			}
+			if(sizeGrid > letters.length()) {
+				throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+			}
+
+			if(this.topology != topology) {
+				this.topology = topology;
+				cellCount = sizeGrid;
+				NeighborTable neighbors = topology.neighbors();
+				for(int cell = 0; cell < sizeGrid; cell++) {
+					long mask = 0;
+					for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+						mask |= 1L << neighbors.neighbor(i);
+					}
+					neighborMasks[cell] = mask;
+				}
+			}
+
+			Arrays.fill(letterMasks, 0);
+			for(int i = 0; i < sizeGrid; i++) {
+				char currentLetter = letters.charAt(i);
+				if(currentLetter < 'a' || currentLetter > 'z') {
+					throw new IllegalArgumentException("Please provide correct letters");
+				}
+				cells[i] = (byte) (currentLetter - 'a');
+				letterMasks[cells[i]] |= 1L << i;
+			}
+
+			for(int cell = 0; cell < sizeGrid; cell++) {
+				int mask = 0;
+				for(long neighbors = neighborMasks[cell]; neighbors != 0; neighbors &= neighbors - 1) {
+					mask |= 1 << cells[Long.numberOfTrailingZeros(neighbors)];
+				}
+				neighborLetters[cell] = mask;
+			}
+
+			for(int i = 0; i < foundCount; i++) {
+				wordsFound[foundIds[i] >>> 6] = 0;
+			}
+			foundCount = 0;
+		}
+
+		/**
+		 * Adds a word to the words found in the grid, if not already found
+		 * @param wordId The identifier of the word
+		 */
+		private void addWord(int wordId) {
+			long bit = 1L << wordId;
+			int index = wordId >>> 6;
+			if((wordsFound[index] & bit) == 0) {
+				wordsFound[index] |= bit;
+				if(foundCount == foundIds.length) {
+					foundIds = Arrays.copyOf(foundIds, foundCount * 2);
+				}
+				foundIds[foundCount++] = wordId;
+			}
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) {
+		System.out.println("Loading dictionary...");
+		LexicographicTree dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		BitboardSolver bitboardSolver = new BitboardSolver(dictionary);
+		BoggleSolver solver = new BoggleSolver(dictionary);
+		System.out.println();
+
+		for(int size : new int[] {4, 5, 8}) {
+			int gridCount = size == 4 ? 200_000 : size == 5 ? 50_000 : 5_000;
+			String[] grids = new String[gridCount];
+			SplittableRandom random = new SplittableRandom(size);
+			for(int i = 0; i < gridCount; i++) {
+				grids[i] = LetterSampler.FRENCH.letters(size * size, random);
+			}
+
+			for(int run = 1; run <= 3; run++) {
+				long startTime = System.nanoTime();
+				long bitboardWords = 0;
+				for(String grid : grids) {
+					bitboardWords += bitboardSolver.count(size, grid);
+				}
+				long bitboardTime = System.nanoTime();
+				long solverWords = 0;
+				for(String grid : grids) {
+					solverWords += solver.count(size, grid);
+				}
+				long solverTime = System.nanoTime();
+				System.out.println(size + "x" + size + " run " + run + " : bitboards " + (bitboardTime - startTime) / 1000.0 / gridCount + " microseconds per grid, BoggleSolver "
+						+ (solverTime - bitboardTime) / 1000.0 / gridCount + " microseconds per grid" + (bitboardWords == solverWords ? "" : " (different word counts)"));
+			}
+		}
+	}
+}
@@ -1,6 +1,13 @@
 package boggle;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -8,6 +15,7 @@ import org.jgrapht.graph.DefaultEdge;
 import org.jgrapht.graph.SimpleGraph;
 import org.jgrapht.Graphs;
 
+import tree.CompactTree;
 import tree.LexicographicTree;
 
 /**
@@ -18,6 +26,14 @@ import tree.LexicographicTree;
 public class Boggle {
 	private final LexicographicTree dictionnary;
     private final SimpleGraph<Vertex, DefaultEdge> graph = new SimpleGraph<>(DefaultEdge.class);
+	private final Topology topology;
+	private Vertex[] cells;
+	private IncrementalGrid incrementalGrid;
+	private int[][] cellsByLetter;
+	private int[] letterPairs;
+	private int[] letterCounts;
+	private String lettersCache;
+	private String textCache;
 
 	/*
 	 * CONSTRUCTORS
@@ -31,9 +47,25 @@ public class Boggle {
 	public Boggle(int size, LexicographicTree dict) {
 		verifyDictionnary(dict);
 		verifyGridSize(size);
-		String letters = pickRandomLetters(size*size);
+		topology = Topology.square(size);
+		String letters = pickRandomLetters(topology.getCellCount());
 		dictionnary = dict;
-		buildGraph(size, letters);
+		buildGraph(letters);
+	}
+	
+	/**
+	 * Constructor : creates a Boggle grid filled with random letters, always the same for a given seed.
+	 * @param size The size of the squared grid
+	 * @param seed The seed of the random letters
+	 * @param dict A dictionary of allowed words
+	 */
+	public Boggle(int size, long seed, LexicographicTree dict) {
+		verifyDictionnary(dict);
+		verifyGridSize(size);
+		topology = Topology.square(size);
+		String letters = LetterSampler.FRENCH.letters(topology.getCellCount(), seed);
+		dictionnary = dict;
+		buildGraph(letters);
 	}
 	
 	/**
@@ -45,9 +77,92 @@ public class Boggle {
 	public Boggle(int size, String letters, LexicographicTree dict) {
 		verifyDictionnary(dict);
 		verifyGridSize(size);
-		verifyLetters(letters,size);		
+		topology = Topology.square(size);
+		verifyLetters(letters,topology.getCellCount());		
+		dictionnary = dict;
+		buildGraph(letters);
+	}
+	
+	/**
+	 * Constructor : creates a Boggle grid of any shape filled with random letters.
+	 * @param topology The shape of the grid (rectangle, torus, hexagonal grid...)
+	 * @param dict A dictionary of allowed words
+	 */
+	public Boggle(Topology topology, LexicographicTree dict) {
+		verifyDictionnary(dict);
+		this.topology = topology;
+		String letters = pickRandomLetters(topology.getCellCount());
+		dictionnary = dict;
+		buildGraph(letters);
+	}
+	
+	/**
+	 * Constructor : creates a Boggle grid of any shape filled with random letters, always the same for a given seed.
+	 * @param topology The shape of the grid (rectangle, torus, hexagonal grid...)
+	 * @param seed The seed of the random letters
+	 * @param dict A dictionary of allowed words
+	 */
+	public Boggle(Topology topology, long seed, LexicographicTree dict) {
+		verifyDictionnary(dict);
+		this.topology = topology;
+		String letters = LetterSampler.FRENCH.letters(topology.getCellCount(), seed);
 		dictionnary = dict;
-		buildGraph(size, letters);
+		buildGraph(letters);
+	}
+	
+	/**
+	 * Constructor : creates a Boggle grid of any shape filled with the supplied letters.
+	 * @param topology The shape of the grid (rectangle, torus, hexagonal grid...)
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @param dict A dictionary of allowed words
+	 */
+	public Boggle(Topology topology, String letters, LexicographicTree dict) {
+		verifyDictionnary(dict);
+		this.topology = topology;
+		verifyLetters(letters,topology.getCellCount());
+		dictionnary = dict;
+		buildGraph(letters);
+	}
+	
+	/**
+	 * Constructor : creates a Boggle grid of any shape whose cells may hold several letters.
+	 * It is private so that a null second argument still selects the constructor taking a string of letters.
+	 * @param topology The shape of the grid
+	 * @param tiles The tiles used to fill the grid, one for each cell, line after line
+	 * @param dict A dictionary of allowed words
+	 */
+	private Boggle(Topology topology, String[] tiles, LexicographicTree dict) {
+		verifyDictionnary(dict);
+		this.topology = topology;
+		verifyTiles(tiles,topology.getCellCount());
+		dictionnary = dict;
+		buildGraph(tiles);
+	}
+	
+	/*
+	 * FACTORIES
+	 */
+	
+	/**
+	 * Creates a Boggle grid whose cells may hold several letters, such as the "qu" cube.
+	 * @param size The size of the squared grid
+	 * @param tiles The (size x size) tiles used to fill the grid, each one made of one or several letters
+	 * @param dict A dictionary of allowed words
+	 * @return the Boggle grid
+	 */
+	public static Boggle withTiles(int size, String[] tiles, LexicographicTree dict) {
+		return new Boggle(Topology.square(size), tiles, dict);
+	}
+	
+	/**
+	 * Creates a Boggle grid of any shape whose cells may hold several letters, such as the "qu" cube.
+	 * @param topology The shape of the grid (rectangle, torus, hexagonal grid...)
+	 * @param tiles The tiles used to fill the grid, one for each cell, line after line
+	 * @param dict A dictionary of allowed words
+	 * @return the Boggle grid
+	 */
+	public static Boggle withTiles(Topology topology, String[] tiles, LexicographicTree dict) {
+		return new Boggle(topology, tiles, dict);
 	}
 	
 	/*
@@ -59,12 +174,31 @@ public class Boggle {
 	 * @return a string of letters
 	 */
 	public String letters() {
-		Set<Vertex> vertices = graph.vertexSet();
-		StringBuilder letters = new StringBuilder("");
-		for (var vertex : vertices) {
-		    letters.append(vertex.getVertexValue());
+		// The string is built once and kept until a letter changes
+		if(lettersCache == null) {
+			StringBuilder letters = new StringBuilder(cells.length);
+			for (var vertex : cells) {
+				if(vertex.isMultiLetter()) {
+					letters.append(vertex.getVertexTile());
+				} else {
+					letters.append(vertex.getVertexValue());
+				}
+			}
+			lettersCache = letters.toString();
+		}
+		return lettersCache;
+	}
+	
+	/**
+	 * Returns the tiles of the Boggle grid, one for each cell.
+	 * @return an array of tiles, line after line
+	 */
+	public String[] tiles() {
+		String[] tiles = new String[cells.length];
+		for(int cell = 0; cell < cells.length; cell++) {
+			tiles[cell] = cells[cell].getVertexTile();
 		}
-		return letters.toString();	
+		return tiles;
 	}
 	
 	/**
@@ -77,16 +211,61 @@ public class Boggle {
 			return false;
 		}
 		
-		word = word.toLowerCase();
+		// Most absent words use a pair of letters that no two neighboring cells hold
+		if(!isPossibleWord(word)) {
+			return false;
+		}
+		int firstLetter = Character.toLowerCase(word.charAt(0)) - 'a';
 		
-		for(var vertex : graph.vertexSet()) {
-			if(containsSequence(vertex,word,new HashSet<Vertex>())) {
+		// Only the cells holding the first letter can start the word
+		NeighborTable neighbors = topology.neighbors();
+		boolean[] visitedCells = new boolean[cells.length];
+		for(int cell : getCellsByLetter()[firstLetter]) {
+			if(containsSequence(neighbors,cell,word,0,visitedCells)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	/**
+	 * Determines which words of a collection can be found in the Boggle grid.
+	 * The words are gathered in a lexicographic tree and the grid is browsed only once for all of them.
+	 * @param words a collection of words
+	 * @return the words of the collection that are present in the grid
+	 */
+	public Set<String> containsAll(Collection<String> words) {
+		Map<String, List<String>> submittedWords = new HashMap<>();
+		LexicographicTree wordsTree = new LexicographicTree();
+		for(String word : words) {
+			String lowerCaseWord = word.toLowerCase();
+			if(lowerCaseWord.length() >= 3 && lowerCaseWord.chars().allMatch(c -> c >= 'a' && c <= 'z') && isPossibleWord(lowerCaseWord)) {
+				submittedWords.computeIfAbsent(lowerCaseWord, w -> new ArrayList<>()).add(word);
+				wordsTree.insertWord(lowerCaseWord);
+			}
+		}
+		
+		Set<String> wordsFound = new HashSet<>();
+		if(submittedWords.isEmpty()) {
+			return wordsFound;
+		}
+		
+		CompactTree compactWords = wordsTree.getCompactTree();
+		boolean[] found = new boolean[compactWords.wordCount()];
+		NeighborTable neighbors = topology.neighbors();
+		boolean[] visitedCells = new boolean[cells.length];
+		for(int cell = 0; cell < cells.length; cell++) {
+			findSubmittedWords(compactWords,neighbors,cell,CompactTree.ROOT,visitedCells,found);
+		}
+		
+		for(int wordId = 0; wordId < found.length; wordId++) {
+			if(found[wordId]) {
+				wordsFound.addAll(submittedWords.get(compactWords.word(wordId)));
+			}
+		}
+		return wordsFound;
+	}
+
 	/**
 	 * Searches for words in the Boggle grid.
 	 * @return the set of found words
@@ -101,32 +280,116 @@ public class Boggle {
 		return wordsFound;
 	}
 	
+	/**
+	 * Changes the letter of a cell and returns the words added to and removed from the grid.
+	 * The first call finds all the paths of the grid, the following ones only explore the paths going through the modified cell.
+	 * @param line The line of the cell, from 0
+	 * @param column The column of the cell, from 0
+	 * @param letter The new letter of the cell
+	 * @return the words added and removed by the change
+	 */
+	public GridDelta setLetter(int line, int column, char letter) {
+		if(line < 0 || line >= topology.getLines() || column < 0 || column >= topology.getColumns()) {
+			throw new IllegalArgumentException("Please provide a cell inside the grid");
+		}
+
+		letter = Character.toLowerCase(letter);
+		if(letter < 'a' || letter > 'z') {
+			throw new IllegalArgumentException("Please provide correct letters");
+		}
+
+		// The word identifiers of the incremental grid belong to its compacted dictionary : the grid is built again once the dictionary has changed
+		CompactTree compactDictionnary = dictionnary.getCompactTree();
+		if(incrementalGrid == null || incrementalGrid.getDictionary() != compactDictionnary) {
+			TileSet tileSet = new TileSet();
+			byte[] letters = new byte[cells.length];
+			for(int i = 0; i < cells.length; i++) {
+				letters[i] = (byte) tileSet.encode(cells[i].getVertexTile());
+			}
+			incrementalGrid = new IncrementalGrid(compactDictionnary, topology.neighbors(), letters, tileSet);
+		}
+
+		int cell = line * topology.getColumns() + column;
+		cells[cell].setVertexValue(letter);
+		cellsByLetter = null;
+		letterPairs = null;
+		letterCounts = null;
+		lettersCache = null;
+		textCache = null;
+		incrementalGrid.setLetter(cell, letter - 'a');
+
+		Set<String> addedWords = new TreeSet<>();
+		Set<String> removedWords = new TreeSet<>();
+		for(int i = 0; i < incrementalGrid.changedWordCount(); i++) {
+			String word = compactDictionnary.word(incrementalGrid.changedWord(i));
+			if(incrementalGrid.isAdded(i)) {
+				addedWords.add(word);
+			} else {
+				removedWords.add(word);
+			}
+		}
+		return new GridDelta(addedWords, removedWords);
+	}
+	
 	/**
 	 * Returns a textual representation of the Boggle grid.
 	 * @return a textual representation of the Boggle grid
 	 */
 	public String toString() {
-		String vertices = letters();
-		int nbrVertices = vertices.length();
-		int numberVerticesByRow = (int)(Math.sqrt(nbrVertices));
-		StringBuilder textualGrid = new StringBuilder("");
-		
-		for(int i = 1; i <= nbrVertices; i++) {
-			textualGrid.append(vertices.charAt(i-1));
-			if(i % numberVerticesByRow == 0) {
-				textualGrid.append("\n");
-			} else {
-				textualGrid.append(" ");
+		if(textCache == null) {
+			StringBuilder textualGrid = new StringBuilder(cells.length * 2 + topology.getLines());
+			try {
+				render(textualGrid);
+			} catch (IOException e) {
+				// A StringBuilder never throws
+				throw new UncheckedIOException(e);
 			}
+			textCache = textualGrid.toString();
+		}
+		return textCache;
+	}
+	
+	/**
+	 * Writes the textual representation of the Boggle grid, as returned by toString(), without building any string.
+	 * @param out the destination of the text (a writer, a stream of logs, a StringBuilder...)
+	 * @throws IOException if the destination cannot be written
+	 */
+	public void appendTo(Appendable out) throws IOException {
+		if(textCache != null) {
+			out.append(textCache);
+		} else {
+			render(out);
 		}
-		return textualGrid.toString();
-		
 	}
 
 	/*
 	 * PRIVATE METHODS
 	 */
 
+	/**
+	 * Writes the cells of the grid line after line
+	 * @param out The destination of the text
+	 * @throws IOException if the destination cannot be written
+	 */
+	private void render(Appendable out) throws IOException {
+		int nbrVertices = cells.length;
+		int numberVerticesByRow = topology.getColumns();
+		
+		for(int i = 1; i <= nbrVertices; i++) {
+			// Odd lines of hexagonal grids are shifted by half a cell
+			if(topology.hasShiftedOddLines() && (i-1) % numberVerticesByRow == 0 && ((i-1) / numberVerticesByRow) % 2 == 1) {
+				out.append(' ');
+			}
+			Vertex vertex = cells[i-1];
+			if(vertex.isMultiLetter()) {
+				out.append(vertex.getVertexTile());
+			} else {
+				out.append(vertex.getVertexValue());
+			}
+			out.append(i % numberVerticesByRow == 0 ? '\n' : ' ');
+		}
+	}
+	
 	/**
 	 * Checks if the grid size is valid
 	 * @param gridSize Grid size
@@ -139,50 +402,45 @@ public class Boggle {
 	}
 	
 	/**
-	 * Builds a Boggle grid in the form of a graph based on a size and a series of letters
-	 * @param size Grid size (example : if this parameter is set to 4, the grid size will be 16 (4X4))
-	 * @param letters A series of letters
+	 * Builds a Boggle grid in the form of a graph based on the topology of the grid and a series of letters
+	 * @param letters A series of letters, one for each cell of the topology
 	 */
-	private void buildGraph(int size,String letters) {
-		Vertex[][] verticesAdded = new Vertex[size][size];
-		for(int i = 0; i < verticesAdded.length; i++) {
-			for(int j = 0; j < verticesAdded[i].length; j++) {
-				Vertex vertexToAdd = new Vertex(letters.charAt(i*size+j));
-				verticesAdded[i][j] = vertexToAdd;
-				graph.addVertex(vertexToAdd);
-				addEdges(verticesAdded, i, j);
-			}
+	private void buildGraph(String letters) {
+		cells = new Vertex[topology.getCellCount()];
+		for(int cell = 0; cell < cells.length; cell++) {
+			cells[cell] = new Vertex(letters.charAt(cell));
 		}
+		linkCells();
 	}
 	
 	/**
-	 * Adds edges to the graph representing the Boggle grid
-	 * @param vertices Graph vertices
-	 * @param lineNumber Current line in vertices
-	 * @param columnNumber Current column in vertices
+	 * Builds a Boggle grid in the form of a graph based on the topology of the grid and a series of tiles
+	 * @param tiles A series of tiles, one for each cell of the topology
 	 */
-	private void addEdges(Vertex[][] vertices,int lineNumber,int columnNumber) {
-		Vertex currentVertex = vertices[lineNumber][columnNumber];
-		
-		// If the column number is greater than 0, a new edge is added between the current and previous vertex
-		if(columnNumber > 0) {
-			graph.addEdge(currentVertex,vertices[lineNumber][columnNumber-1]);
+	private void buildGraph(String[] tiles) {
+		cells = new Vertex[topology.getCellCount()];
+		for(int cell = 0; cell < cells.length; cell++) {
+			cells[cell] = new Vertex(tiles[cell]);
+		}
+		linkCells();
+	}
+	
+	/**
+	 * Adds the cells to the graph and links each cell to its neighbors
+	 */
+	private void linkCells() {
+		NeighborTable neighbors = topology.neighbors();
+		for(var vertex : cells) {
+			graph.addVertex(vertex);
 		}
 		
-		/*
-		 * If the line number is greater than 0 :
-
-			- When the column number is smaller than the number of vertices in the row - 1, a new edge is added between the current vertex and the vertex above it on the right.
-
-			- When the column number is greater than 0, a new edge is added between the current vertex and the vertex above it on the left.
-		 * */
-		if(lineNumber > 0) {
-			graph.addEdge(currentVertex,vertices[lineNumber - 1][columnNumber]);
-			if(columnNumber != vertices[lineNumber].length - 1) {
-				graph.addEdge(currentVertex,vertices[lineNumber-1][columnNumber+1]);
-			}
-			if(columnNumber > 0) {
-				graph.addEdge(currentVertex,vertices[lineNumber-1][columnNumber-1]);
+		// Each edge is added once, from the cell with the highest number
+		for(int cell = 0; cell < cells.length; cell++) {
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				int neighbor = neighbors.neighbor(i);
+				if(neighbor < cell) {
+					graph.addEdge(cells[cell],cells[neighbor]);
+				}
 			}
 		}
 	}
@@ -193,37 +451,167 @@ public class Boggle {
 	 * @return A series of random letters
 	 */
 	private String pickRandomLetters(int nbrLettersToPick) {
-		char[] lettersWithFrequencies = new char[] {'a','a','a','a','a','a','a','a','b','b','c','c','c','c','d','d','d','d','e','e','e','e','e','e','e','e','e','e','e','e','e','f','f','g','g','h','h','i','i','i','i','i','i','i','j','k','l','l','l','l','l','m','m','m','n','n','n','n','n','n','n','o','o','o','o','o','o','p','p','p','q','r','r','r','r','r','r','r','s','s','s','s','s','s','s','t','t','t','t','t','t','u','u','u','u','u','v','v','w','x','y','z'};
-		StringBuilder lettersPicked = new StringBuilder("");
+		return LetterSampler.FRENCH.letters(nbrLettersToPick);
+	}
+	
+	/**
+	 * Determines whether the end of a word can be found from a cell
+	 * @param neighbors The neighbors of each cell
+	 * @param cell Cell at which search begins
+	 * @param word The word to search for
+	 * @param index Position in the word of the letter expected in the cell
+	 * @param visitedCells Cells already visited
+	 * @return True if it is possible to find the end of the word from the current cell, false otherwise
+	 */
+	private boolean containsSequence(NeighborTable neighbors,int cell,String word,int index,boolean[] visitedCells) {
+		Vertex vertex = cells[cell];
+		int tileLength = 1;
+		if(vertex.isMultiLetter()) {
+			String tile = vertex.getVertexTile();
+			if(!word.regionMatches(true,index,tile,0,tile.length())) {
+				return false;
+			}
+			tileLength = tile.length();
+		} else if(vertex.getVertexValue() != Character.toLowerCase(word.charAt(index))) {
+			return false;
+		}
+		if(index + tileLength == word.length()) {
+			return true;
+		}
 		
-		for(int i = 0; i < nbrLettersToPick; i++) {
-			lettersPicked.append(lettersWithFrequencies[(int)(Math.random() * lettersWithFrequencies.length)]);
+		visitedCells[cell] = true;
+		for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+			int neighbor = neighbors.neighbor(i);
+			if(!visitedCells[neighbor] && containsSequence(neighbors,neighbor,word,index+tileLength,visitedCells)) {
+				visitedCells[cell] = false;
+				return true;
+			}
 		}
-		return lettersPicked.toString();
+		visitedCells[cell] = false;
+		return false;
 	}
 	
 	/**
-	 * Determines whether a word or sequence of letters can be found from a vertex
-	 * @param vertex Vertex at which search begins
-	 * @param word The sequence of letters to search for
-	 * @param visitedVertices Vertices already visited
-	 * @return True if it is possible to find the letter sequence from the current vertex, false otherwise
+	 * Marks the submitted words that can be found from a cell, following the tree of the submitted words
+	 * @param words The tree of the submitted words
+	 * @param neighbors The neighbors of each cell
+	 * @param cell Current cell
+	 * @param node Node of the letters already used
+	 * @param visitedCells Cells already visited
+	 * @param found The words already found, indexed by word identifier
 	 */
-	private boolean containsSequence(Vertex vertex,String word,Set<Vertex> visitedVertices) {
-		visitedVertices.add(vertex);
-		if(vertex.getVertexValue() == word.charAt(0)) {
-			if(word.length() == 1) {
-				return true;
-			} else {
-				for(var v : Graphs.neighborListOf(graph, vertex)) {
-					if(!visitedVertices.contains(v) && containsSequence(v,word.substring(1),visitedVertices)) {
-						return true;
-					}
+	private void findSubmittedWords(CompactTree words,NeighborTable neighbors,int cell,int node,boolean[] visitedCells,boolean[] found) {
+		int next = followTile(words,node,cells[cell]);
+		if(next == CompactTree.NO_NODE) {
+			return;
+		}
+		
+		if(words.isWord(next)) {
+			found[words.wordId(next)] = true;
+		}
+		
+		if(words.childMask(next) != 0) {
+			visitedCells[cell] = true;
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				int neighbor = neighbors.neighbor(i);
+				if(!visitedCells[neighbor]) {
+					findSubmittedWords(words,neighbors,neighbor,next,visitedCells,found);
 				}
 			}
+			visitedCells[cell] = false;
 		}
-		visitedVertices.remove(vertex);
-		return false;
+	}
+	
+	/**
+	 * Follows the letters of a vertex in a tree
+	 * @param words The tree
+	 * @param node The node of the letters already used
+	 * @param vertex The vertex
+	 * @return The node reached, or CompactTree.NO_NODE if the letters of the vertex do not follow the node
+	 */
+	private static int followTile(CompactTree words,int node,Vertex vertex) {
+		if(!vertex.isMultiLetter()) {
+			return words.child(node, vertex.getVertexValue() - 'a');
+		}
+		String tile = vertex.getVertexTile();
+		for(int i = 0; i < tile.length() && node != CompactTree.NO_NODE; i++) {
+			node = words.child(node, tile.charAt(i) - 'a');
+		}
+		return node;
+	}
+	
+	/**
+	 * Returns the cells holding each letter (the first letter for multi-letter tiles), built on first use and rebuilt after a letter change
+	 * @return The cells of each letter, indexed by letter (0 for 'a')
+	 */
+	private int[][] getCellsByLetter() {
+		if(cellsByLetter == null) {
+			int[] counts = new int[CompactTree.ALPHABET_SIZE];
+			for(var cell : cells) {
+				counts[cell.getVertexValue() - 'a']++;
+			}
+			int[][] index = new int[CompactTree.ALPHABET_SIZE][];
+			for(int letter = 0; letter < index.length; letter++) {
+				index[letter] = new int[counts[letter]];
+				counts[letter] = 0;
+			}
+			for(int cell = 0; cell < cells.length; cell++) {
+				int letter = cells[cell].getVertexValue() - 'a';
+				index[letter][counts[letter]++] = cell;
+			}
+			cellsByLetter = index;
+		}
+		return cellsByLetter;
+	}
+	
+	/**
+	 * Determines whether the letters of a word could be found in the grid : each letter must be present often enough
+	 * and each pair of consecutive letters must be held by two neighboring cells (or by the same multi-letter tile)
+	 * @param word The word to check
+	 * @return False if the word cannot be found in the grid, true if it may be found
+	 */
+	private boolean isPossibleWord(String word) {
+		if(letterPairs == null) {
+			buildLetterPairs();
+		}
+		
+		int[] counts = new int[CompactTree.ALPHABET_SIZE];
+		int previousLetter = -1;
+		for(int i = 0; i < word.length(); i++) {
+			int letter = Character.toLowerCase(word.charAt(i)) - 'a';
+			if(letter < 0 || letter >= CompactTree.ALPHABET_SIZE || ++counts[letter] > letterCounts[letter]) {
+				return false;
+			}
+			if(previousLetter != -1 && (letterPairs[previousLetter] & (1 << letter)) == 0) {
+				return false;
+			}
+			previousLetter = letter;
+		}
+		return true;
+	}
+	
+	/**
+	 * Computes the number of occurrences of each letter and, for each letter, the letters that can follow it in the grid
+	 */
+	private void buildLetterPairs() {
+		NeighborTable neighbors = topology.neighbors();
+		int[] pairs = new int[CompactTree.ALPHABET_SIZE];
+		int[] counts = new int[CompactTree.ALPHABET_SIZE];
+		for(int cell = 0; cell < cells.length; cell++) {
+			String tile = cells[cell].getVertexTile();
+			for(int i = 0; i < tile.length(); i++) {
+				counts[tile.charAt(i) - 'a']++;
+				if(i > 0) {
+					pairs[tile.charAt(i-1) - 'a'] |= 1 << (tile.charAt(i) - 'a');
+				}
+			}
+			int lastLetter = tile.charAt(tile.length()-1) - 'a';
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				pairs[lastLetter] |= 1 << (cells[neighbors.neighbor(i)].getVertexValue() - 'a');
+			}
+		}
+		letterPairs = pairs;
+		letterCounts = counts;
 	}
 	
 	/**
@@ -234,7 +622,14 @@ public class Boggle {
 	 * @param visitedVertices Vertices already visited
 	 */
 	private void solveBoggleGrid(Vertex currentVertex,StringBuilder currentWord,Set<String> wordsFound,Set<Vertex> visitedVertices) {
-		currentWord.append(currentVertex.getVertexValue());
+		int tileLength = 1;
+		if(currentVertex.isMultiLetter()) {
+			String tile = currentVertex.getVertexTile();
+			currentWord.append(tile);
+			tileLength = tile.length();
+		} else {
+			currentWord.append(currentVertex.getVertexValue());
+		}
 		visitedVertices.add(currentVertex);
 		
 		String currentWordInString = currentWord.toString();
@@ -252,7 +647,7 @@ public class Boggle {
 		}
 		
 		visitedVertices.remove(currentVertex);
-		currentWord.setLength(currentWord.length()-1);
+		currentWord.setLength(currentWord.length()-tileLength);
 	}
 	
 	/**
@@ -273,11 +668,10 @@ public class Boggle {
 	/**
 	 * Check that the letters used to construct the Boggle grid are valid
 	 * @param letters Letters to check
-	 * @param size Grid size
+	 * @param sizeGrid Number of cells in the grid
 	 */
-	private void verifyLetters(String letters,int size) {
+	private void verifyLetters(String letters,int sizeGrid) {
 		int lettersLength = letters.length();
-		int sizeGrid = size*size;
 		
 		if(sizeGrid > lettersLength) {
 			throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
@@ -295,6 +689,24 @@ public class Boggle {
 		}
 	}
 	
+	/**
+	 * Check that the tiles used to construct the Boggle grid are valid
+	 * @param tiles Tiles to check
+	 * @param sizeGrid Number of cells in the grid
+	 */
+	private void verifyTiles(String[] tiles,int sizeGrid) {
+		if(sizeGrid > tiles.length) {
+			throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+		}
+		
+		for(int i = 0; i < sizeGrid; i++) {
+			if(tiles[i] == null || tiles[i].isEmpty()) {
+				throw new IllegalArgumentException("Please provide correct letters");
+			}
+			verifyLetters(tiles[i],tiles[i].length());
+		}
+	}
+	
 	/*
 	 * MAIN PROGRAM
 	 */
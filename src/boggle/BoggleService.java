@@ -0,0 +1,352 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import tree.LexicographicTree;
+
+/**
+ * This class is an in-process service solving Boggle grids for many concurrent callers.
+ * Requests wait in a bounded queue; a dispatcher thread gathers them into batches, each batch being solved by one thread of a fixed CPU pool.
+ * When all the pool threads are busy, the requests pile up in the queue, which makes the next batches larger, and when the queue is full, callers wait (or are rejected) : this is the backpressure.
+ * Callers are expected to run on cheap threads (virtual threads when available, see newRequestExecutor()), since they mostly wait for their result.
+ * @author Maxime Cao
+ *
+ */
+public class BoggleService implements AutoCloseable {
+	private static final int DEFAULT_QUEUE_CAPACITY = 10_000;
+	private static final int DEFAULT_BATCH_SIZE = 64;
+	private static final int LATENCY_SAMPLES = 8192;
+
+	private final BoggleSolver solver;
+	private final BlockingQueue<Request> requests;
+	private final ExecutorService workers;
+	private final Semaphore freeWorkers;
+	private final int maxBatchSize;
+	private final Thread dispatcher;
+	private volatile boolean closed;
+
+	private final long[] latencies = new long[LATENCY_SAMPLES];
+	private long latencyCount;
+	private final AtomicLong completedRequests = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates a service with one worker per available processor
+	 * @param dict A dictionary of allowed words
+	 */
+	public BoggleService(LexicographicTree dict) {
+		this(dict, DEFAULT_QUEUE_CAPACITY, DEFAULT_BATCH_SIZE, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor : creates a service and starts its threads
+	 * @param dict A dictionary of allowed words
+	 * @param queueCapacity The maximum number of requests waiting to be solved
+	 * @param maxBatchSize The maximum number of requests solved together
+	 * @param workerCount The number of threads solving the grids
+	 */
+	public BoggleService(LexicographicTree dict, int queueCapacity, int maxBatchSize, int workerCount) {
+		if(queueCapacity < 1 || maxBatchSize < 1 || workerCount < 1) {
+			throw new IllegalArgumentException("Please provide a positive queue capacity, batch size and number of workers");
+		}
+
+		solver = new BoggleSolver(dict);
+		requests = new ArrayBlockingQueue<>(queueCapacity);
+		workers = Executors.newFixedThreadPool(workerCount);
+		freeWorkers = new Semaphore(workerCount);
+		this.maxBatchSize = maxBatchSize;
+		dispatcher = new Thread(this::dispatch, "boggle-dispatcher");
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Submits a grid, waiting while the queue is full
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the set of found words, once the grid is solved
+	 * @throws InterruptedException if the caller is interrupted while waiting for room in the queue
+	 */
+	public CompletableFuture<Set<String>> submit(int size, String letters) throws InterruptedException {
+		Request request = new Request(Topology.square(size), letters);
+		verifyOpen();
+		requests.put(request);
+		// The service may have been closed while the caller was waiting
+		if(closed) {
+			failPendingRequests();
+		}
+		return request.result;
+	}
+
+	/**
+	 * Submits a grid without waiting : the request fails at once if the queue is full
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the set of found words, once the grid is solved
+	 */
+	public CompletableFuture<Set<String>> trySubmit(int size, String letters) {
+		Request request = new Request(Topology.square(size), letters);
+		verifyOpen();
+		if(!requests.offer(request)) {
+			request.result.completeExceptionally(new RejectedExecutionException("Too many pending requests"));
+		} else if(closed) {
+			// The service may have been closed between the check and the offer
+			failPendingRequests();
+		}
+		return request.result;
+	}
+
+	/**
+	 * Get the number of requests waiting in the queue
+	 * @return The queue depth
+	 */
+	public int getQueueDepth() {
+		return requests.size();
+	}
+
+	/**
+	 * Get the number of requests solved (or failed) since the service started
+	 * @return The number of completed requests
+	 */
+	public long getCompletedRequests() {
+		return completedRequests.get();
+	}
+
+	/**
+	 * Get the number of batches solved since the service started
+	 * @return The number of batches
+	 */
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	/**
+	 * Get a percentile of the time between the submission and the completion of the last requests
+	 * @param percentile A percentile between 0 and 100 (50 for the median)
+	 * @return The latency in nanoseconds, 0 if no request completed yet
+	 */
+	public long getLatencyPercentile(double percentile) {
+		if(percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Please provide a percentile between 0 and 100");
+		}
+
+		long[] samples;
+		synchronized(latencies) {
+			samples = Arrays.copyOf(latencies, (int) Math.min(latencyCount, LATENCY_SAMPLES));
+		}
+		if(samples.length == 0) {
+			return 0;
+		}
+		Arrays.sort(samples);
+		int index = (int) Math.ceil(percentile / 100 * samples.length) - 1;
+		return samples[Math.max(index, 0)];
+	}
+
+	/**
+	 * Stops the service : the requests still in the queue fail, the batches being solved are completed
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		dispatcher.interrupt();
+		workers.shutdown();
+		failPendingRequests();
+	}
+
+	/**
+	 * Returns an executor for the callers of the service : one virtual thread per task when the runtime supports them (Java 21 and later),
+	 * otherwise a pool of platform threads created on demand.
+	 * @return An executor for the tasks waiting for the service
+	 */
+	public static ExecutorService newRequestExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool();
+		}
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Gathers the waiting requests into batches and hands them to the workers, until the service is closed.
+	 * A batch is only formed once a worker is free, so that the requests arriving meanwhile join it.
+	 */
+	private void dispatch() {
+		try {
+			while(!closed) {
+				freeWorkers.acquire();
+				List<Request> batch = new ArrayList<>(maxBatchSize);
+				try {
+					batch.add(requests.take());
+					requests.drainTo(batch, maxBatchSize - 1);
+					workers.execute(() -> solveBatch(batch));
+				} catch (InterruptedException | RejectedExecutionException e) {
+					freeWorkers.release();
+					failRequests(batch);
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			// The service is closed
+		} finally {
+			failPendingRequests();
+		}
+	}
+
+	/**
+	 * Solves the grids of a batch one after the other and completes their results
+	 * @param batch The requests of the batch
+	 */
+	private void solveBatch(List<Request> batch) {
+		try {
+			for(var request : batch) {
+				Set<String> words = null;
+				RuntimeException failure = null;
+				try {
+					words = solver.solve(request.topology, request.letters);
+				} catch (RuntimeException e) {
+					failure = e;
+				}
+				// The metrics are updated before the caller is woken up, so that it sees its own request in them
+				recordLatency(System.nanoTime() - request.submitTime);
+				if(failure == null) {
+					request.result.complete(words);
+				} else {
+					request.result.completeExceptionally(failure);
+				}
+			}
+			batchCount.incrementAndGet();
+		} finally {
+			freeWorkers.release();
+		}
+	}
+
+	/**
+	 * Keeps the latency of a completed request among the last samples
+	 * @param latency The latency in nanoseconds
+	 */
+	private void recordLatency(long latency) {
+		synchronized(latencies) {
+			latencies[(int) (latencyCount % LATENCY_SAMPLES)] = latency;
+			latencyCount++;
+		}
+		completedRequests.incrementAndGet();
+	}
+
+	/**
+	 * Fails all the requests still in the queue
+	 */
+	private void failPendingRequests() {
+		List<Request> pending = new ArrayList<>();
+		requests.drainTo(pending);
+		failRequests(pending);
+	}
+
+	/**
+	 * Fails requests because the service is closed
+	 * @param failedRequests The requests
+	 */
+	private static void failRequests(List<Request> failedRequests) {
+		for(var request : failedRequests) {
+			request.result.completeExceptionally(new RejectedExecutionException("The service is closed"));
+		}
+	}
+
+	/**
+	 * Checks that the service still accepts requests
+	 */
+	private void verifyOpen() {
+		if(closed) {
+			throw new RejectedExecutionException("The service is closed");
+		}
+	}
+
+	/**
+	 * This class holds a grid waiting to be solved and its future result
+	 */
+	private static final class Request {
+		private final Topology topology;
+		private final String letters;
+		private final long submitTime = System.nanoTime();
+		private final CompletableFuture<Set<String>> result = new CompletableFuture<>();
+
+		/**
+		 * This constructor creates a request
+		 * @param topology The shape of the grid
+		 * @param letters The letters of the grid
+		 */
+		private Request(Topology topology, String letters) {
+			if(letters == null) {
+				throw new NullPointerException("Please provide non null letters");
+			}
+			this.topology = topology;
+			this.letters = letters;
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) throws InterruptedException {
+		System.out.println("Loading dictionary...");
+		LexicographicTree dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		System.out.println();
+
+		// Stand-in clients : each one sends its grids one after the other and waits for the answers
+		int clientCount = 200;
+		int requestsPerClient = 250;
+		AtomicLong wordCount = new AtomicLong();
+		AtomicLong maxQueueDepth = new AtomicLong();
+		try(BoggleService service = new BoggleService(dictionary)) {
+			ExecutorService clients = newRequestExecutor();
+			long startTime = System.currentTimeMillis();
+			for(int client = 0; client < clientCount; client++) {
+				clients.execute(() -> {
+					try {
+						for(int i = 0; i < requestsPerClient; i++) {
+							wordCount.addAndGet(service.submit(4, LetterSampler.FRENCH.letters(16)).join().size());
+							maxQueueDepth.accumulateAndGet(service.getQueueDepth(), Math::max);
+						}
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				});
+			}
+			clients.shutdown();
+			clients.awaitTermination(1, TimeUnit.HOURS);
+			long duration = System.currentTimeMillis() - startTime;
+
+			long requestCount = service.getCompletedRequests();
+			System.out.println(requestCount + " requests from " + clientCount + " clients in " + duration/1000.0 + " s");
+			System.out.println("Requests per second : " + requestCount * 1000 / Math.max(1, duration));
+			System.out.println("Average batch size : " + requestCount / (double) Math.max(1, service.getBatchCount()));
+			System.out.println("Maximum queue depth : " + maxQueueDepth.get());
+			System.out.println("Average number of words : " + wordCount.get() / (double) requestCount);
+			System.out.println("Latency p50 / p90 / p99 (ms) : " + service.getLatencyPercentile(50)/1e6 + " / " + service.getLatencyPercentile(90)/1e6 + " / " + service.getLatencyPercentile(99)/1e6);
+		}
+	}
+}
@@ -0,0 +1,602 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class solves many Boggle grids, of any shape, against the same dictionary.
+ * The dictionary is checked and compacted once, and each thread reuses its own grid, visited cells and found words buffers from one grid to the next.
+ * @author Maxime Cao
+ *
+ */
+public class BoggleSolver {
+	private static final int MIN_WORD_LENGTH = 3;
+
+	private final CompactTree dictionnary;
+	private final ThreadLocal<SolverState> states;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates a solver bound to a dictionary
+	 * @param dict A dictionary of allowed words
+	 */
+	public BoggleSolver(LexicographicTree dict) {
+		if(dict == null) {
+			throw new NullPointerException("Please provide non null dictionnary");
+		}
+
+		if(dict.size() == 0) {
+			throw new IllegalArgumentException("Please provide a correct dictionnary");
+		}
+
+		dictionnary = dict.getCompactTree();
+		states = ThreadLocal.withInitial(() -> new SolverState(dictionnary.wordCount()));
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Searches for words in a Boggle grid.
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the set of found words
+	 */
+	public Set<String> solve(int size, String letters) {
+		return solve(Topology.square(size), letters);
+	}
+
+	/**
+	 * Searches for words in a Boggle grid of any shape.
+	 * @param topology The shape of the grid
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @return the set of found words
+	 */
+	public Set<String> solve(Topology topology, String letters) {
+		return collectWords(explore(topology, letters));
+	}
+
+	/**
+	 * Searches for words in a Boggle grid whose cells may hold several letters (such as "qu").
+	 * @param topology The shape of the grid
+	 * @param tiles The letters of each cell of the grid, line after line
+	 * @return the set of found words
+	 */
+	public Set<String> solve(Topology topology, String[] tiles) {
+		SolverState state = states.get();
+		state.load(topology, tiles);
+		return collectWords(explore(state));
+	}
+
+	/**
+	 * Counts the words in a Boggle grid without building them.
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the number of found words
+	 */
+	public int count(int size, String letters) {
+		return count(Topology.square(size), letters);
+	}
+
+	/**
+	 * Counts the words in a Boggle grid of any shape without building them.
+	 * @param topology The shape of the grid
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @return the number of found words
+	 */
+	public int count(Topology topology, String letters) {
+		return explore(topology, letters).foundCount;
+	}
+
+	/**
+	 * Counts the words in a Boggle grid whose cells may hold several letters, without building them.
+	 * @param topology The shape of the grid
+	 * @param tiles The letters of each cell of the grid, line after line
+	 * @return the number of found words
+	 */
+	public int count(Topology topology, String[] tiles) {
+		SolverState state = states.get();
+		state.load(topology, tiles);
+		return explore(state).foundCount;
+	}
+
+	/**
+	 * Computes the statistics of a Boggle grid (number of words, score, longest word, number of words per length) without building any word.
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the statistics of the grid
+	 */
+	public BoggleStatistics statistics(int size, String letters) {
+		return statistics(Topology.square(size), letters);
+	}
+
+	/**
+	 * Computes the statistics of a Boggle grid of any shape without building any word.
+	 * @param topology The shape of the grid
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @return the statistics of the grid
+	 */
+	public BoggleStatistics statistics(Topology topology, String letters) {
+		return collectStatistics(explore(topology, letters));
+	}
+
+	/**
+	 * Computes the statistics of a Boggle grid whose cells may hold several letters, without building any word.
+	 * @param topology The shape of the grid
+	 * @param tiles The letters of each cell of the grid, line after line
+	 * @return the statistics of the grid
+	 */
+	public BoggleStatistics statistics(Topology topology, String[] tiles) {
+		SolverState state = states.get();
+		state.load(topology, tiles);
+		return collectStatistics(explore(state));
+	}
+
+	/**
+	 * Searches for words in a Boggle grid and the first path forming each of them, so that a word can be highlighted without searching it again.
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the found words, sorted, with the cells of their first path (cells are numbered line after line : line = cell / size, column = cell % size)
+	 */
+	public Map<String, int[]> solveWithPaths(int size, String letters) {
+		Map<String, int[]> paths = new TreeMap<>();
+		solveWithPaths(Topology.square(size), letters, false, paths::put);
+		return paths;
+	}
+
+	/**
+	 * Searches for words in a Boggle grid of any shape and gives each of them to a consumer along with the cells forming it.
+	 * @param topology The shape of the grid
+	 * @param letters A string containing one letter for each cell of the grid, line after line
+	 * @param allPaths True to report every path forming a word, false to report only the first one
+	 * @param pathConsumer Receives each word and a new array of the cells of its path, numbered line after line
+	 * @return the number of found words
+	 */
+	public int solveWithPaths(Topology topology, String letters, boolean allPaths, BiConsumer<String, int[]> pathConsumer) {
+		if(pathConsumer == null) {
+			throw new NullPointerException("Please provide a non null consumer");
+		}
+
+		SolverState state = states.get();
+		state.load(topology, letters);
+		for(int cell = 0; cell < state.cellCount; cell++) {
+			explorePathsFrom(state, cell, CompactTree.ROOT, 0, allPaths, pathConsumer);
+		}
+		return state.foundCount;
+	}
+
+	/**
+	 * Searches for words in several Boggle grids of the same size, in parallel.
+	 * @param size The size of the squared grids
+	 * @param grids The letters of each grid
+	 * @return the set of found words of each grid, in the order of the grids
+	 */
+	public BatchResult<Set<String>> solveAll(int size, List<String> grids) {
+		return solveAll(Topology.square(size), grids);
+	}
+
+	/**
+	 * Searches for words in several Boggle grids of the same shape, in parallel.
+	 * @param topology The shape of the grids
+	 * @param grids The letters of each grid
+	 * @return the set of found words of each grid, in the order of the grids
+	 */
+	public BatchResult<Set<String>> solveAll(Topology topology, List<String> grids) {
+		return runBatch(topology, grids, this::solve);
+	}
+
+	/**
+	 * Searches for words in several Boggle grids of the same size, in parallel.
+	 * @param size The size of the squared grids
+	 * @param grids The letters of each grid
+	 * @return the set of found words of each grid, in the order of the grids
+	 */
+	public BatchResult<Set<String>> solveAll(int size, String... grids) {
+		return solveAll(size, Arrays.asList(grids));
+	}
+
+	/**
+	 * Counts the words in several Boggle grids of the same size, in parallel.
+	 * @param size The size of the squared grids
+	 * @param grids The letters of each grid
+	 * @return the number of found words of each grid, in the order of the grids
+	 */
+	public BatchResult<Integer> countAll(int size, List<String> grids) {
+		return countAll(Topology.square(size), grids);
+	}
+
+	/**
+	 * Counts the words in several Boggle grids of the same shape, in parallel.
+	 * @param topology The shape of the grids
+	 * @param grids The letters of each grid
+	 * @return the number of found words of each grid, in the order of the grids
+	 */
+	public BatchResult<Integer> countAll(Topology topology, List<String> grids) {
+		return runBatch(topology, grids, this::count);
+	}
+
+	/**
+	 * Counts the words in several Boggle grids of the same size, in parallel.
+	 * @param size The size of the squared grids
+	 * @param grids The letters of each grid
+	 * @return the number of found words of each grid, in the order of the grids
+	 */
+	public BatchResult<Integer> countAll(int size, String... grids) {
+		return countAll(size, Arrays.asList(grids));
+	}
+
+	/**
+	 * Computes the statistics of several Boggle grids of the same size, in parallel.
+	 * @param size The size of the squared grids
+	 * @param grids The letters of each grid
+	 * @return the statistics of each grid, in the order of the grids
+	 */
+	public BatchResult<BoggleStatistics> statisticsAll(int size, List<String> grids) {
+		return statisticsAll(Topology.square(size), grids);
+	}
+
+	/**
+	 * Computes the statistics of several Boggle grids of the same shape, in parallel.
+	 * @param topology The shape of the grids
+	 * @param grids The letters of each grid
+	 * @return the statistics of each grid, in the order of the grids
+	 */
+	public BatchResult<BoggleStatistics> statisticsAll(Topology topology, List<String> grids) {
+		return runBatch(topology, grids, this::statistics);
+	}
+
+	/**
+	 * Computes the statistics of several Boggle grids of the same size, in parallel.
+	 * @param size The size of the squared grids
+	 * @param grids The letters of each grid
+	 * @return the statistics of each grid, in the order of the grids
+	 */
+	public BatchResult<BoggleStatistics> statisticsAll(int size, String... grids) {
+		return statisticsAll(size, Arrays.asList(grids));
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Applies a solving function to every grid of a batch, grids being spread over the available processors
+	 * @param <T> The type of the result of each grid
+	 * @param topology The shape of the grids
+	 * @param grids The letters of each grid
+	 * @param solvingFunction The function computing the result of a grid
+	 * @return The results of the batch
+	 */
+	private <T> BatchResult<T> runBatch(Topology topology, List<String> grids, BiFunction<Topology, String, T> solvingFunction) {
+		long startTime = System.nanoTime();
+		List<T> results = new ArrayList<>(grids.size());
+		for(int i = 0; i < grids.size(); i++) {
+			results.add(null);
+		}
+
+		IntStream.range(0, grids.size()).parallel().forEach(i -> results.set(i, solvingFunction.apply(topology, grids.get(i))));
+
+		return new BatchResult<>(results, System.nanoTime() - startTime);
+	}
+
+	/**
+	 * Builds the words found in the last grid
+	 * @param state The buffers of the current thread
+	 * @return The set of found words
+	 */
+	private Set<String> collectWords(SolverState state) {
+		Set<String> wordsFound = new TreeSet<>();
+		for(int i = 0; i < state.foundCount; i++) {
+			wordsFound.add(dictionnary.word(state.foundIds[i]));
+		}
+		return wordsFound;
+	}
+
+	/**
+	 * Computes the statistics of the words found in the last grid
+	 * @param state The buffers of the current thread
+	 * @return The statistics of the grid
+	 */
+	private BoggleStatistics collectStatistics(SolverState state) {
+		int score = 0;
+		int longestWordId = CompactTree.NO_WORD;
+		int longestWordLength = 0;
+
+		for(int i = 0; i < state.foundCount; i++) {
+			int wordId = state.foundIds[i];
+			int length = dictionnary.wordLength(wordId);
+			score += BoggleStatistics.points(length);
+			if(length > longestWordLength || (length == longestWordLength && wordId < longestWordId)) {
+				longestWordLength = length;
+				longestWordId = wordId;
+			}
+		}
+
+		int[] countByLength = new int[longestWordLength + 1];
+		for(int i = 0; i < state.foundCount; i++) {
+			countByLength[dictionnary.wordLength(state.foundIds[i])]++;
+		}
+		return new BoggleStatistics(dictionnary, state.foundCount, score, longestWordId, countByLength);
+	}
+
+	/**
+	 * Loads a grid in the buffers of the current thread and finds all its words
+	 * @param topology The shape of the grid
+	 * @param letters The letters of the grid
+	 * @return The buffers of the current thread, holding the identifiers of the found words
+	 */
+	private SolverState explore(Topology topology, String letters) {
+		SolverState state = states.get();
+		state.load(topology, letters);
+		return explore(state);
+	}
+
+	/**
+	 * Finds all the words of the grid loaded in the buffers of the current thread
+	 * @param state The buffers of the current thread
+	 * @return The buffers of the current thread, holding the identifiers of the found words
+	 */
+	private SolverState explore(SolverState state) {
+		for(int cell = 0; cell < state.cellCount; cell++) {
+			exploreFrom(state, cell, CompactTree.ROOT);
+		}
+		return state;
+	}
+
+	/**
+	 * Finds all words in the grid starting with the prefix of a node and continuing with a cell
+	 * @param state The buffers of the current thread
+	 * @param cell Current cell
+	 * @param node Node of the letters already used
+	 */
+	private void exploreFrom(SolverState state, int cell, int node) {
+		int value = state.cells[cell];
+		// Single letters go straight to the tree, only multi-letter tiles need a loop
+		int next = value < TileSet.FIRST_TILE ? dictionnary.child(node, value) : state.tiles.walk(dictionnary, node, value);
+		if(next == CompactTree.NO_NODE) {
+			return;
+		}
+
+		int wordId = dictionnary.wordId(next);
+		if(wordId != CompactTree.NO_WORD && dictionnary.depth(next) >= MIN_WORD_LENGTH) {
+			state.addWord(wordId);
+		}
+
+		// Only the letters held by the neighbors of the cell can continue the word
+		int childMask = dictionnary.childMask(next) & state.neighborLetters[cell];
+		if(childMask != 0) {
+			NeighborTable neighbors = state.neighbors;
+			state.visited[cell] = true;
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				int neighbor = neighbors.neighbor(i);
+				if(!state.visited[neighbor] && (childMask & state.letterBits[neighbor]) != 0) {
+					exploreFrom(state, neighbor, next);
+				}
+			}
+			state.visited[cell] = false;
+		}
+	}
+
+	/**
+	 * Finds all words in the grid starting with the prefix of a node and continuing with a cell, and reports the path of each of them.
+	 * It is kept apart from exploreFrom so that the searches without paths do not pay for them.
+	 * @param state The buffers of the current thread
+	 * @param cell Current cell
+	 * @param node Node of the letters already used
+	 * @param pathLength Number of cells already used
+	 * @param allPaths True to report every path forming a word, false to report only the first one
+	 * @param pathConsumer Receives each word and the cells of its path
+	 */
+	private void explorePathsFrom(SolverState state, int cell, int node, int pathLength, boolean allPaths, BiConsumer<String, int[]> pathConsumer) {
+		int next = dictionnary.child(node, state.cells[cell]);
+		if(next == CompactTree.NO_NODE) {
+			return;
+		}
+
+		state.path[pathLength++] = cell;
+		int wordId = dictionnary.wordId(next);
+		if(wordId != CompactTree.NO_WORD && dictionnary.depth(next) >= MIN_WORD_LENGTH && (state.addWord(wordId) || allPaths)) {
+			pathConsumer.accept(dictionnary.word(wordId), Arrays.copyOf(state.path, pathLength));
+		}
+
+		int childMask = dictionnary.childMask(next) & state.neighborLetters[cell];
+		if(childMask != 0) {
+			NeighborTable neighbors = state.neighbors;
+			state.visited[cell] = true;
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				int neighbor = neighbors.neighbor(i);
+				if(!state.visited[neighbor] && (childMask & state.letterBits[neighbor]) != 0) {
+					explorePathsFrom(state, neighbor, next, pathLength, allPaths, pathConsumer);
+				}
+			}
+			state.visited[cell] = false;
+		}
+	}
+
+	/**
+	 * This class holds the buffers used by one thread to solve grids one after the other
+	 */
+	private static final class SolverState {
+		private final long[] wordsFound;
+		private int[] foundIds = new int[64];
+		private int foundCount;
+		private byte[] cells = new byte[0];
+		private boolean[] visited = new boolean[0];
+		private int[] path = new int[0];
+		private int[] letterBits = new int[0];
+		private int[] neighborLetters = new int[0];
+		private int cellCount;
+		private Topology topology;
+		private NeighborTable neighbors;
+		private final TileSet tiles = new TileSet();
+
+		/**
+		 * This constructor allocates the buffers for a dictionary
+		 * @param wordCount The number of words of the dictionary
+		 */
+		private SolverState(int wordCount) {
+			wordsFound = new long[(wordCount + 63) / 64];
+		}
+
+		/**
+		 * Copies the letters of a grid and forgets the words found in the previous grid
+		 * @param topology The shape of the grid
+		 * @param letters The letters of the grid, extra letters are ignored
+		 */
+		private void load(Topology topology, String letters) {
+			int sizeGrid = topology.getCellCount();
+			if(sizeGrid > letters.length()) {
+				throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+			}
+
+			useTopology(topology);
+			tiles.clear();
+			for(int i = 0; i < sizeGrid; i++) {
+				char currentLetter = letters.charAt(i);
+				if(currentLetter < 'a' || currentLetter > 'z') {
+					throw new IllegalArgumentException("Please provide correct letters");
+				}
+				cells[i] = (byte) (currentLetter - 'a');
+			}
+			computeLetterMasks();
+			clearWords();
+		}
+
+		/**
+		 * Copies the tiles of a grid and forgets the words found in the previous grid
+		 * @param topology The shape of the grid
+		 * @param gridTiles The letters of each cell of the grid, extra tiles are ignored
+		 */
+		private void load(Topology topology, String[] gridTiles) {
+			int sizeGrid = topology.getCellCount();
+			if(sizeGrid > gridTiles.length) {
+				throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+			}
+
+			useTopology(topology);
+			tiles.clear();
+			for(int i = 0; i < sizeGrid; i++) {
+				cells[i] = (byte) tiles.encode(gridTiles[i]);
+			}
+			computeLetterMasks();
+			clearWords();
+		}
+
+		/**
+		 * Prepares the buffers for a grid shape
+		 * @param topology The shape of the grid
+		 */
+		private void useTopology(Topology topology) {
+			if(this.topology != topology) {
+				this.topology = topology;
+				cellCount = topology.getCellCount();
+				neighbors = topology.neighbors();
+				if(cells.length < cellCount) {
+					cells = new byte[cellCount];
+					visited = new boolean[cellCount];
+					path = new int[cellCount];
+					letterBits = new int[cellCount];
+					neighborLetters = new int[cellCount];
+				}
+			}
+		}
+
+		/**
+		 * Computes the bit of the (first) letter of each cell and the letters held by the neighbors of each cell
+		 */
+		private void computeLetterMasks() {
+			for(int cell = 0; cell < cellCount; cell++) {
+				letterBits[cell] = 1 << tiles.firstLetter(cells[cell]);
+			}
+			for(int cell = 0; cell < cellCount; cell++) {
+				int mask = 0;
+				for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+					mask |= letterBits[neighbors.neighbor(i)];
+				}
+				neighborLetters[cell] = mask;
+			}
+		}
+
+		/**
+		 * Forgets the words found in the previous grid
+		 */
+		private void clearWords() {
+			for(int i = 0; i < foundCount; i++) {
+				int wordId = foundIds[i];
+				wordsFound[wordId >>> 6] = 0;
+			}
+			foundCount = 0;
+		}
+
+		/**
+		 * Adds a word to the words found in the grid, if not already found
+		 * @param wordId The identifier of the word
+		 * @return True if the word was not found yet, false otherwise
+		 */
+		private boolean addWord(int wordId) {
+			long bit = 1L << wordId;
+			int index = wordId >>> 6;
+			if((wordsFound[index] & bit) == 0) {
+				wordsFound[index] |= bit;
+				if(foundCount == foundIds.length) {
+					foundIds = Arrays.copyOf(foundIds, foundCount * 2);
+				}
+				foundIds[foundCount++] = wordId;
+				return true;
+			}
+			return false;
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) {
+		long startTime = System.currentTimeMillis();
+		System.out.println("Loading dictionary...");
+		LexicographicTree dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		BoggleSolver solver = new BoggleSolver(dictionary);
+		long loadDictTime = System.currentTimeMillis();
+		System.out.println("Duration : " + (loadDictTime - startTime)/1000.0);
+		System.out.println();
+
+		// Random 4x4 grids
+		int gridCount = 100_000;
+		List<String> grids = new ArrayList<>(gridCount);
+		SplittableRandom random = new SplittableRandom(42);
+		for(int i = 0; i < gridCount; i++) {
+			grids.add(LetterSampler.FRENCH.letters(16, random));
+		}
+
+		for(int run = 1; run <= 3; run++) {
+			BatchResult<BoggleStatistics> statistics = solver.statisticsAll(4, grids);
+			long totalWords = 0;
+			long totalScore = 0;
+			for(var gridStatistics : statistics.getResults()) {
+				totalWords += gridStatistics.getWordCount();
+				totalScore += gridStatistics.getScore();
+			}
+			System.out.println("Run " + run + " : " + statistics.size() + " grids in " + statistics.getDurationNanos()/1_000_000_000.0 + " s");
+			System.out.println("Grids per second : " + (long) statistics.getGridsPerSecond());
+			System.out.println("Average number of words : " + totalWords / (double) statistics.size());
+			System.out.println("Average score : " + totalScore / (double) statistics.size());
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package boggle;
+
+import java.util.Arrays;
+
+import tree.CompactTree;
+
+/**
+ * This class holds the statistics of a solved Boggle grid (number of words, score, longest word, number of words per length) without keeping the words themselves
+ * @author Maxime Cao
+ *
+ */
+public class BoggleStatistics {
+	private static final int[] POINTS_BY_LENGTH = {0, 0, 0, 1, 1, 2, 3, 5};
+	private static final int MAX_POINTS = 11;
+
+	private final CompactTree dictionnary;
+	private final int wordCount;
+	private final int score;
+	private final int longestWordId;
+	private final int[] countByLength;
+
+	/**
+	 * This constructor creates the statistics of a grid
+	 * @param dictionnary The dictionary the words come from
+	 * @param wordCount The number of words found
+	 * @param score The total score of the words found
+	 * @param longestWordId The identifier of the longest word, or CompactTree.NO_WORD if no word was found
+	 * @param countByLength The number of words found for each length
+	 */
+	BoggleStatistics(CompactTree dictionnary, int wordCount, int score, int longestWordId, int[] countByLength) {
+		this.dictionnary = dictionnary;
+		this.wordCount = wordCount;
+		this.score = score;
+		this.longestWordId = longestWordId;
+		this.countByLength = countByLength;
+	}
+
+	/**
+	 * Returns the points scored by a word according to the official rules (1 point up to 4 letters, 2 for 5, 3 for 6, 5 for 7, 11 from 8 letters)
+	 * @param length The length of the word
+	 * @return The points of the word
+	 */
+	public static int points(int length) {
+		if(length < POINTS_BY_LENGTH.length) {
+			return POINTS_BY_LENGTH[length];
+		}
+		return MAX_POINTS;
+	}
+
+	/**
+	 * Get the number of words found
+	 * @return The number of words
+	 */
+	public int getWordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * Get the total score of the words found
+	 * @return The score of the grid
+	 */
+	public int getScore() {
+		return score;
+	}
+
+	/**
+	 * Get the length of the longest word found
+	 * @return The length of the longest word, 0 if no word was found
+	 */
+	public int getLongestWordLength() {
+		return countByLength.length - 1;
+	}
+
+	/**
+	 * Get the longest word found, the first one in alphabetical order if several words have the same length. The word is only built when this method is called.
+	 * @return The longest word, or an empty string if no word was found
+	 */
+	public String getLongestWord() {
+		if(longestWordId == CompactTree.NO_WORD) {
+			return "";
+		}
+		return dictionnary.word(longestWordId);
+	}
+
+	/**
+	 * Get the number of words found with a given length
+	 * @param length A word length
+	 * @return The number of words of this length
+	 */
+	public int getCountByLength(int length) {
+		if(length < 0 || length >= countByLength.length) {
+			return 0;
+		}
+		return countByLength[length];
+	}
+
+	/**
+	 * Returns the statistics as a string
+	 */
+	@Override
+	public String toString() {
+		return "words=" + wordCount + ", score=" + score + ", longest=" + getLongestWord() + ", byLength=" + Arrays.toString(countByLength);
+	}
+}
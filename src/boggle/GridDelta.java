@@ -0,0 +1,56 @@
+package boggle;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * This class holds the words added to and removed from a Boggle grid by the change of one of its letters
+ * @author Maxime Cao
+ *
+ */
+public class GridDelta {
+	private final Set<String> addedWords;
+	private final Set<String> removedWords;
+
+	/**
+	 * This constructor creates a delta
+	 * @param addedWords The words that can be found only after the change
+	 * @param removedWords The words that could be found only before the change
+	 */
+	public GridDelta(Set<String> addedWords, Set<String> removedWords) {
+		this.addedWords = Collections.unmodifiableSet(addedWords);
+		this.removedWords = Collections.unmodifiableSet(removedWords);
+	}
+
+	/**
+	 * Get the words added by the change
+	 * @return The set of added words
+	 */
+	public Set<String> getAddedWords() {
+		return addedWords;
+	}
+
+	/**
+	 * Get the words removed by the change
+	 * @return The set of removed words
+	 */
+	public Set<String> getRemovedWords() {
+		return removedWords;
+	}
+
+	/**
+	 * Determines whether the change added or removed any word
+	 * @return True if no word was added or removed, false otherwise
+	 */
+	public boolean isEmpty() {
+		return addedWords.isEmpty() && removedWords.isEmpty();
+	}
+
+	/**
+	 * Returns the delta as a string
+	 */
+	@Override
+	public String toString() {
+		return "+" + addedWords + " -" + removedWords;
+	}
+}
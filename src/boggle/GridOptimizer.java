@@ -0,0 +1,224 @@
+package boggle;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class generates high-scoring Boggle grids by simulated annealing.
+ * Each step changes the letter of one cell and re-scores the grid by exploring only the paths going through that cell.
+ * Several independent chains run in parallel and the best grid found is kept.
+ * @author Maxime Cao
+ *
+ */
+public class GridOptimizer {
+	private static final double START_TEMPERATURE = 4.0;
+	private static final double END_TEMPERATURE = 0.05;
+
+	/**
+	 * The value the optimizer tries to maximize
+	 */
+	public enum Objective {
+		WORD_COUNT,
+		SCORE
+	}
+
+	private final CompactTree dictionnary;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates an optimizer bound to a dictionary
+	 * @param dict A dictionary of allowed words
+	 */
+	public GridOptimizer(LexicographicTree dict) {
+		if(dict == null) {
+			throw new NullPointerException("Please provide non null dictionnary");
+		}
+
+		if(dict.size() == 0) {
+			throw new IllegalArgumentException("Please provide a correct dictionnary");
+		}
+
+		dictionnary = dict.getCompactTree();
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Searches for a grid maximizing an objective, with one chain per available processor and a random seed.
+	 * @param size The size of the squared grid
+	 * @param objective The value to maximize
+	 * @param iterations The number of letter changes tried by each chain
+	 * @return The letters of the best grid found
+	 */
+	public String optimize(int size, Objective objective, int iterations) {
+		return optimize(size, objective, iterations, Runtime.getRuntime().availableProcessors(), System.nanoTime());
+	}
+
+	/**
+	 * Searches for a grid maximizing an objective. The result only depends on the seed and on the number of chains, not on the number of processors.
+	 * @param size The size of the squared grid
+	 * @param objective The value to maximize
+	 * @param iterations The number of letter changes tried by each chain
+	 * @param chains The number of independent chains
+	 * @param seed The seed of the random generators
+	 * @return The letters of the best grid found
+	 */
+	public String optimize(int size, Objective objective, int iterations, int chains, long seed) {
+		return optimize(Topology.square(size), objective, iterations, chains, seed);
+	}
+
+	/**
+	 * Searches for a grid of any shape maximizing an objective. The result only depends on the seed and on the number of chains, not on the number of processors.
+	 * @param topology The shape of the grid
+	 * @param objective The value to maximize
+	 * @param iterations The number of letter changes tried by each chain
+	 * @param chains The number of independent chains
+	 * @param seed The seed of the random generators
+	 * @return The letters of the best grid found, line after line
+	 */
+	public String optimize(Topology topology, Objective objective, int iterations, int chains, long seed) {
+		if(chains < 1 || iterations < 0) {
+			throw new IllegalArgumentException("Please provide a positive number of chains and iterations");
+		}
+
+		NeighborTable neighbors = topology.neighbors();
+		SplittableRandom seeds = new SplittableRandom(seed);
+		SplittableRandom[] randoms = new SplittableRandom[chains];
+		for(int i = 0; i < chains; i++) {
+			randoms[i] = seeds.split();
+		}
+
+		ChainResult[] results = IntStream.range(0, chains).parallel()
+				.mapToObj(i -> runChain(neighbors, objective, iterations, randoms[i]))
+				.toArray(ChainResult[]::new);
+
+		// The first chain wins ties, so that the result does not depend on the scheduling of the chains
+		ChainResult best = results[0];
+		for(var result : results) {
+			if(result.value > best.value) {
+				best = result;
+			}
+		}
+		return lettersToString(best.cells);
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Runs one annealing chain from a random grid
+	 * @param neighbors The neighbors of each cell
+	 * @param objective The value to maximize
+	 * @param iterations The number of letter changes tried
+	 * @param random The random generator of the chain
+	 * @return The best grid met by the chain and its value
+	 */
+	private ChainResult runChain(NeighborTable neighbors, Objective objective, int iterations, SplittableRandom random) {
+		int cellCount = neighbors.cellCount();
+		byte[] cells = new byte[cellCount];
+		for(int i = 0; i < cellCount; i++) {
+			cells[i] = (byte) random.nextInt(CompactTree.ALPHABET_SIZE);
+		}
+
+		IncrementalGrid grid = new IncrementalGrid(dictionnary, neighbors, cells);
+		int value = valueOf(grid, objective);
+		int bestValue = value;
+		byte[] bestCells = cells.clone();
+		double cooling = iterations > 0 ? Math.pow(END_TEMPERATURE / START_TEMPERATURE, 1.0 / iterations) : 1;
+		double temperature = START_TEMPERATURE;
+
+		for(int i = 0; i < iterations; i++) {
+			int cell = random.nextInt(cellCount);
+			int oldLetter = grid.letter(cell);
+			int newLetter = random.nextInt(CompactTree.ALPHABET_SIZE - 1);
+			if(newLetter >= oldLetter) {
+				newLetter++;
+			}
+
+			grid.setLetter(cell, newLetter);
+			int newValue = valueOf(grid, objective);
+			int delta = newValue - value;
+
+			if(delta >= 0 || random.nextDouble() < Math.exp(delta / temperature)) {
+				value = newValue;
+				cells[cell] = (byte) newLetter;
+				if(value > bestValue) {
+					bestValue = value;
+					System.arraycopy(cells, 0, bestCells, 0, cellCount);
+				}
+			} else {
+				grid.undo();
+			}
+			temperature *= cooling;
+		}
+		return new ChainResult(bestCells, bestValue);
+	}
+
+	/**
+	 * Returns the value of a grid for an objective
+	 * @param grid The grid
+	 * @param objective The value to maximize
+	 * @return The number of words or the score of the grid
+	 */
+	private static int valueOf(IncrementalGrid grid, Objective objective) {
+		return objective == Objective.SCORE ? grid.score() : grid.wordCount();
+	}
+
+	/**
+	 * Converts letter indexes into a string of letters
+	 * @param cells The letter index of each cell
+	 * @return The letters of the grid
+	 */
+	private static String lettersToString(byte[] cells) {
+		char[] letters = new char[cells.length];
+		for(int i = 0; i < cells.length; i++) {
+			letters[i] = (char) ('a' + cells[i]);
+		}
+		return new String(letters);
+	}
+
+	/**
+	 * This class holds the best grid found by a chain
+	 */
+	private static final class ChainResult {
+		private final byte[] cells;
+		private final int value;
+
+		/**
+		 * This constructor creates a chain result
+		 * @param cells The letter index of each cell
+		 * @param value The value of the grid
+		 */
+		private ChainResult(byte[] cells, int value) {
+			this.cells = cells;
+			this.value = value;
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) {
+		System.out.println("Loading dictionary...");
+		LexicographicTree dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		GridOptimizer optimizer = new GridOptimizer(dictionary);
+		BoggleSolver solver = new BoggleSolver(dictionary);
+		System.out.println();
+
+		long startTime = System.currentTimeMillis();
+		String letters = optimizer.optimize(4, Objective.SCORE, 20_000);
+		System.out.println("Optimization duration : " + (System.currentTimeMillis() - startTime)/1000.0);
+		System.out.println(new Boggle(4, letters, dictionary));
+		System.out.println(solver.statistics(4, letters));
+	}
+}
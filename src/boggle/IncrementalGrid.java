@@ -0,0 +1,316 @@
+package boggle;
+
+import java.util.Arrays;
+
+import tree.CompactTree;
+
+/**
+ * This class keeps, for a Boggle grid, the number of paths forming each word of the dictionary.
+ * When a letter changes, only the paths going through the modified cell are explored again: they are removed with the old letter and added with the new one.
+ * Words whose number of paths goes from zero to non-zero (or the opposite) are the words added to (or removed from) the grid.
+ * @author Maxime Cao
+ *
+ */
+final class IncrementalGrid {
+	private static final int MIN_WORD_LENGTH = 3;
+	private static final int NO_TARGET = -1;
+	private static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private final CompactTree dictionnary;
+	private final NeighborTable neighbors;
+	private final TileSet tiles;
+	private final byte[] cells;
+	private final boolean[] visited;
+	private final int[] distances;
+	private final int[] queue;
+	private final int[] pathCounts;
+	private final long[] touchedWords;
+	private int[] touchedIds = new int[64];
+	private int[] previousCounts = new int[64];
+	private int touchedCount;
+	private int lastCell = NO_TARGET;
+	private int lastLetter;
+	private int lastWordCount;
+	private int lastScore;
+	private int[] changedIds = new int[64];
+	private boolean[] changeAdded = new boolean[64];
+	private int changedCount;
+	private int target = NO_TARGET;
+	private int targetLetterBit;
+	private int wordCount;
+	private int score;
+
+	/**
+	 * This constructor finds all the words of a grid and counts their paths
+	 * @param dictionnary The dictionary of allowed words
+	 * @param neighbors The neighbors of each cell
+	 * @param cells The letter index of each cell (0 for 'a'), copied
+	 */
+	IncrementalGrid(CompactTree dictionnary, NeighborTable neighbors, byte[] cells) {
+		this(dictionnary, neighbors, cells, new TileSet());
+	}
+
+	/**
+	 * This constructor finds all the words of a grid whose cells may hold several letters and counts their paths
+	 * @param dictionnary The dictionary of allowed words
+	 * @param neighbors The neighbors of each cell
+	 * @param cells The value of each cell, encoded by the tile set, copied
+	 * @param tiles The multi-letter tiles of the grid
+	 */
+	IncrementalGrid(CompactTree dictionnary, NeighborTable neighbors, byte[] cells, TileSet tiles) {
+		this.dictionnary = dictionnary;
+		this.neighbors = neighbors;
+		this.tiles = tiles;
+		this.cells = Arrays.copyOf(cells, neighbors.cellCount());
+		this.visited = new boolean[this.cells.length];
+		this.distances = new int[this.cells.length];
+		this.queue = new int[this.cells.length];
+		this.pathCounts = new int[dictionnary.wordCount()];
+		this.touchedWords = new long[(dictionnary.wordCount() + 63) / 64];
+
+		for(int cell = 0; cell < this.cells.length; cell++) {
+			explore(cell, CompactTree.ROOT, 1, true);
+		}
+		commitChanges();
+	}
+
+	/**
+	 * Returns the dictionary of the grid, which gives the words of the word identifiers
+	 * @return The compacted dictionary
+	 */
+	CompactTree getDictionary() {
+		return dictionnary;
+	}
+
+	/**
+	 * Returns the letter of a cell
+	 * @param cell A cell
+	 * @return The letter index of the cell (0 for 'a'), or its tile value if it holds several letters
+	 */
+	int letter(int cell) {
+		return cells[cell];
+	}
+
+	/**
+	 * Returns the number of cells in the grid
+	 * @return The number of cells
+	 */
+	int cellCount() {
+		return cells.length;
+	}
+
+	/**
+	 * Returns the number of words in the grid
+	 * @return The number of words
+	 */
+	int wordCount() {
+		return wordCount;
+	}
+
+	/**
+	 * Returns the total score of the words in the grid
+	 * @return The score of the grid
+	 */
+	int score() {
+		return score;
+	}
+
+	/**
+	 * Determines whether a word can be found in the grid
+	 * @param wordId A word identifier
+	 * @return True if at least one path forms the word, false otherwise
+	 */
+	boolean contains(int wordId) {
+		return pathCounts[wordId] > 0;
+	}
+
+	/**
+	 * Changes the letter of a cell and updates the words of the grid by exploring only the paths going through that cell
+	 * @param cell The cell to change
+	 * @param letter The new letter index (0 for 'a'), or a value of the tile set
+	 */
+	void setLetter(int cell, int letter) {
+		changedCount = 0;
+		touchedCount = 0;
+		lastCell = NO_TARGET;
+		if(cells[cell] == letter) {
+			return;
+		}
+
+		lastCell = cell;
+		lastLetter = cells[cell];
+		lastWordCount = wordCount;
+		lastScore = score;
+		computeDistances(cell);
+		target = cell;
+		targetLetterBit = 1 << tiles.firstLetter(cells[cell]);
+		exploreThroughTarget(-1);
+		cells[cell] = (byte) letter;
+		targetLetterBit = 1 << tiles.firstLetter(letter);
+		exploreThroughTarget(1);
+		target = NO_TARGET;
+		commitChanges();
+	}
+
+	/**
+	 * Cancels the last change without exploring the grid, by restoring the path counts it modified
+	 */
+	void undo() {
+		if(lastCell == NO_TARGET) {
+			return;
+		}
+
+		for(int i = 0; i < touchedCount; i++) {
+			pathCounts[touchedIds[i]] = previousCounts[i];
+		}
+		cells[lastCell] = (byte) lastLetter;
+		wordCount = lastWordCount;
+		score = lastScore;
+		touchedCount = 0;
+		changedCount = 0;
+		lastCell = NO_TARGET;
+	}
+
+	/**
+	 * Returns the number of words added or removed by the last change
+	 * @return The number of changed words
+	 */
+	int changedWordCount() {
+		return changedCount;
+	}
+
+	/**
+	 * Returns a word added or removed by the last change
+	 * @param index An index lower than changedWordCount()
+	 * @return The identifier of the word
+	 */
+	int changedWord(int index) {
+		return changedIds[index];
+	}
+
+	/**
+	 * Determines whether a word changed by the last change was added or removed
+	 * @param index An index lower than changedWordCount()
+	 * @return True if the word was added, false if it was removed
+	 */
+	boolean isAdded(int index) {
+		return changeAdded[index];
+	}
+
+	/**
+	 * Computes the distance (in moves) between the target cell and every other cell
+	 * @param origin The target cell
+	 */
+	private void computeDistances(int origin) {
+		Arrays.fill(distances, UNREACHABLE);
+		int head = 0;
+		int tail = 0;
+		distances[origin] = 0;
+		queue[tail++] = origin;
+		while(head < tail) {
+			int cell = queue[head++];
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				int neighbor = neighbors.neighbor(i);
+				if(distances[neighbor] == UNREACHABLE) {
+					distances[neighbor] = distances[cell] + 1;
+					queue[tail++] = neighbor;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds or removes all the paths going through the target cell
+	 * @param delta 1 to add the paths, -1 to remove them
+	 */
+	private void exploreThroughTarget(int delta) {
+		for(int cell = 0; cell < cells.length; cell++) {
+			if(distances[cell] != UNREACHABLE) {
+				explore(cell, CompactTree.ROOT, delta, cell == target);
+			}
+		}
+	}
+
+	/**
+	 * Counts the paths starting with the prefix of a node and continuing with a cell.
+	 * A path which has not gone through the target yet is abandoned as soon as the target is further away than the longest word below the node, or when no word below the node contains the letter of the target.
+	 * @param cell Current cell
+	 * @param node Node of the letters already used
+	 * @param delta 1 to add the paths, -1 to remove them
+	 * @param throughTarget True if the path already went through the target cell (or if there is no target)
+	 */
+	private void explore(int cell, int node, int delta, boolean throughTarget) {
+		int value = cells[cell];
+		int next = value < TileSet.FIRST_TILE ? dictionnary.child(node, value) : tiles.walk(dictionnary, node, value);
+		if(next == CompactTree.NO_NODE) {
+			return;
+		}
+
+		boolean through = throughTarget || cell == target;
+		if(!through && (distances[cell] > dictionnary.height(next) || (dictionnary.descendantMask(next) & targetLetterBit) == 0)) {
+			return;
+		}
+
+		int wordId = dictionnary.wordId(next);
+		if(through && wordId != CompactTree.NO_WORD && dictionnary.depth(next) >= MIN_WORD_LENGTH) {
+			countPath(wordId, delta);
+		}
+
+		if(dictionnary.childMask(next) != 0) {
+			visited[cell] = true;
+			for(int i = neighbors.start(cell); i < neighbors.end(cell); i++) {
+				int neighbor = neighbors.neighbor(i);
+				if(!visited[neighbor]) {
+					explore(neighbor, next, delta, through);
+				}
+			}
+			visited[cell] = false;
+		}
+	}
+
+	/**
+	 * Adds or removes a path forming a word and remembers whether the word was in the grid before the current change
+	 * @param wordId The identifier of the word
+	 * @param delta 1 to add the path, -1 to remove it
+	 */
+	private void countPath(int wordId, int delta) {
+		long bit = 1L << wordId;
+		int index = wordId >>> 6;
+		if((touchedWords[index] & bit) == 0) {
+			touchedWords[index] |= bit;
+			if(touchedCount == touchedIds.length) {
+				touchedIds = Arrays.copyOf(touchedIds, touchedCount * 2);
+				previousCounts = Arrays.copyOf(previousCounts, touchedCount * 2);
+			}
+			touchedIds[touchedCount] = wordId;
+			previousCounts[touchedCount] = pathCounts[wordId];
+			touchedCount++;
+		}
+		pathCounts[wordId] += delta;
+	}
+
+	/**
+	 * Compares the words touched by the current change with their state before it, and updates the word count and the score.
+	 * The touched words are kept until the next change so that it can be undone.
+	 */
+	private void commitChanges() {
+		changedCount = 0;
+		for(int i = 0; i < touchedCount; i++) {
+			int wordId = touchedIds[i];
+			touchedWords[wordId >>> 6] = 0;
+			boolean present = pathCounts[wordId] > 0;
+			if(present != previousCounts[i] > 0) {
+				int points = BoggleStatistics.points(dictionnary.wordLength(wordId));
+				wordCount += present ? 1 : -1;
+				score += present ? points : -points;
+				if(changedCount == changedIds.length) {
+					changedIds = Arrays.copyOf(changedIds, changedCount * 2);
+					changeAdded = Arrays.copyOf(changeAdded, changedCount * 2);
+				}
+				changedIds[changedCount] = wordId;
+				changeAdded[changedCount] = present;
+				changedCount++;
+			}
+		}
+	}
+}
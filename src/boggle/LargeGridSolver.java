@@ -0,0 +1,285 @@
+package boggle;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class solves very large rectangular Boggle grids (1000x1000 and more) with a bounded memory use.
+ * The grid is stored as one byte per cell and is explored tile after tile: the paths starting in a tile never go further than the longest word of the dictionary,
+ * so the visited cells only need to cover the tile and a margin of that width around it.
+ * Found words are given to a consumer as soon as they are found, each word only once, instead of being gathered in a set.
+ * @author Maxime Cao
+ *
+ */
+public class LargeGridSolver {
+	private static final int MIN_WORD_LENGTH = 3;
+	private static final int DEFAULT_TILE_SIZE = 64;
+
+	private final CompactTree dictionnary;
+	private final int tileSize;
+	private final int overlap;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates a solver bound to a dictionary
+	 * @param dict A dictionary of allowed words
+	 */
+	public LargeGridSolver(LexicographicTree dict) {
+		this(dict, DEFAULT_TILE_SIZE);
+	}
+
+	/**
+	 * Constructor : creates a solver bound to a dictionary, with a chosen tile size
+	 * @param dict A dictionary of allowed words
+	 * @param tileSize The number of lines and columns of the cells where paths start, for each tile
+	 */
+	LargeGridSolver(LexicographicTree dict, int tileSize) {
+		if(dict == null) {
+			throw new NullPointerException("Please provide non null dictionnary");
+		}
+
+		if(dict.size() == 0) {
+			throw new IllegalArgumentException("Please provide a correct dictionnary");
+		}
+
+		if(tileSize < 1) {
+			throw new IllegalArgumentException("Please provide a positive tile size");
+		}
+
+		dictionnary = dict.getCompactTree();
+		this.tileSize = tileSize;
+		// A path is never longer than the longest word of the dictionary
+		overlap = dictionnary.height(CompactTree.ROOT);
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Searches for words in a squared Boggle grid and streams them to a consumer.
+	 * @param size The size of the squared grid
+	 * @param letters The (size x size) letters of the grid
+	 * @param wordConsumer Receives each found word once, in no particular order
+	 * @return the number of found words
+	 */
+	public int solve(int size, CharSequence letters, Consumer<String> wordConsumer) {
+		return solve(size, size, letters, wordConsumer);
+	}
+
+	/**
+	 * Searches for words in a rectangular Boggle grid and streams them to a consumer.
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @param letters The (lines x columns) letters of the grid, line after line
+	 * @param wordConsumer Receives each found word once, in no particular order
+	 * @return the number of found words
+	 */
+	public int solve(int lines, int columns, CharSequence letters, Consumer<String> wordConsumer) {
+		return solve(lines, columns, pack(lines, columns, letters), wordConsumer);
+	}
+
+	/**
+	 * Searches for words in a rectangular Boggle grid already packed as letter indexes and streams them to a consumer.
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @param cells The letter index of each cell (0 for 'a'), line after line
+	 * @param wordConsumer Receives each found word once, in no particular order
+	 * @return the number of found words
+	 */
+	public int solve(int lines, int columns, byte[] cells, Consumer<String> wordConsumer) {
+		if(wordConsumer == null) {
+			throw new NullPointerException("Please provide a non null consumer");
+		}
+		verifyDimensions(lines, columns);
+		if((long) lines * columns > cells.length) {
+			throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+		}
+		for(int i = 0; i < lines * columns; i++) {
+			if(cells[i] < 0 || cells[i] >= CompactTree.ALPHABET_SIZE) {
+				throw new IllegalArgumentException("Please provide correct letters");
+			}
+		}
+
+		int regionSide = tileSize + 2 * overlap;
+		Search search = new Search(cells, lines, columns, new boolean[regionSide * regionSide], dictionnary.wordCount(), wordConsumer);
+		for(int top = 0; top < lines; top += tileSize) {
+			for(int left = 0; left < columns; left += tileSize) {
+				search.regionTop = top - overlap;
+				search.regionLeft = left - overlap;
+				search.regionColumns = regionSide;
+				int bottom = Math.min(top + tileSize, lines);
+				int right = Math.min(left + tileSize, columns);
+				for(int line = top; line < bottom; line++) {
+					for(int column = left; column < right; column++) {
+						explore(search, line, column, CompactTree.ROOT);
+					}
+				}
+			}
+		}
+		return search.foundCount;
+	}
+
+	/**
+	 * Packs the letters of a grid into one byte per cell
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @param letters The (lines x columns) letters of the grid, line after line
+	 * @return The letter index of each cell (0 for 'a')
+	 */
+	public static byte[] pack(int lines, int columns, CharSequence letters) {
+		verifyDimensions(lines, columns);
+		long sizeGrid = (long) lines * columns;
+		if(sizeGrid > letters.length()) {
+			throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+		}
+
+		byte[] cells = new byte[(int) sizeGrid];
+		for(int i = 0; i < cells.length; i++) {
+			char currentLetter = letters.charAt(i);
+			if(currentLetter < 'a' || currentLetter > 'z') {
+				throw new IllegalArgumentException("Please provide correct letters");
+			}
+			cells[i] = (byte) (currentLetter - 'a');
+		}
+		return cells;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Finds all words starting with the prefix of a node and continuing with a cell.
+	 * The path stays inside the region of the current tile because it is never longer than the overlap.
+	 * @param search The state of the current search
+	 * @param line The line of the current cell
+	 * @param column The column of the current cell
+	 * @param node Node of the letters already used
+	 */
+	private void explore(Search search, int line, int column, int node) {
+		int next = dictionnary.child(node, search.cells[line * search.columns + column]);
+		if(next == CompactTree.NO_NODE) {
+			return;
+		}
+
+		int wordId = dictionnary.wordId(next);
+		if(wordId != CompactTree.NO_WORD && dictionnary.depth(next) >= MIN_WORD_LENGTH) {
+			search.addWord(wordId, dictionnary);
+		}
+
+		if(dictionnary.childMask(next) != 0) {
+			int local = (line - search.regionTop) * search.regionColumns + (column - search.regionLeft);
+			search.visited[local] = true;
+			for(int i = Math.max(line - 1, 0); i <= Math.min(line + 1, search.lines - 1); i++) {
+				for(int j = Math.max(column - 1, 0); j <= Math.min(column + 1, search.columns - 1); j++) {
+					int neighborLocal = (i - search.regionTop) * search.regionColumns + (j - search.regionLeft);
+					if(!search.visited[neighborLocal]) {
+						explore(search, i, j, next);
+					}
+				}
+			}
+			search.visited[local] = false;
+		}
+	}
+
+	/**
+	 * Checks if the dimensions of a grid are valid
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 */
+	private static void verifyDimensions(int lines, int columns) {
+		if(lines < 1 || columns < 1) {
+			throw new IllegalArgumentException("La taille de la grille ne doit pas être inférieure à 1");
+		}
+		if((long) lines * columns > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Please provide a grid with less than 2^31 cells");
+		}
+	}
+
+	/**
+	 * This class holds the state of one search : the grid, the visited cells of the current tile and the words already found
+	 */
+	private static final class Search {
+		private final byte[] cells;
+		private final int lines;
+		private final int columns;
+		private final boolean[] visited;
+		private final long[] wordsFound;
+		private final Consumer<String> wordConsumer;
+		private int regionTop;
+		private int regionLeft;
+		private int regionColumns;
+		private int foundCount;
+
+		/**
+		 * This constructor creates the state of a search
+		 * @param cells The letter index of each cell
+		 * @param lines The number of lines
+		 * @param columns The number of columns
+		 * @param visited The visited cells of the region of a tile
+		 * @param wordCount The number of words of the dictionary
+		 * @param wordConsumer Receives each found word once
+		 */
+		private Search(byte[] cells, int lines, int columns, boolean[] visited, int wordCount, Consumer<String> wordConsumer) {
+			this.cells = cells;
+			this.lines = lines;
+			this.columns = columns;
+			this.visited = visited;
+			this.wordsFound = new long[(wordCount + 63) / 64];
+			this.wordConsumer = wordConsumer;
+		}
+
+		/**
+		 * Gives a word to the consumer if it has not been found yet
+		 * @param wordId The identifier of the word
+		 * @param dictionnary The dictionary used to build the word
+		 */
+		private void addWord(int wordId, CompactTree dictionnary) {
+			long bit = 1L << wordId;
+			int index = wordId >>> 6;
+			if((wordsFound[index] & bit) == 0) {
+				wordsFound[index] |= bit;
+				foundCount++;
+				wordConsumer.accept(dictionnary.word(wordId));
+			}
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) {
+		System.out.println("Loading dictionary...");
+		LexicographicTree dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		LargeGridSolver solver = new LargeGridSolver(dictionary);
+		System.out.println();
+
+		int size = 1000;
+		Random random = new Random(0);
+		String frequentLetters = "eeeeeeeaaaaiiiissssnnnrrrttttoooluuuldcmp";
+		byte[] cells = new byte[size * size];
+		for(int i = 0; i < cells.length; i++) {
+			cells[i] = (byte) (frequentLetters.charAt(random.nextInt(frequentLetters.length())) - 'a');
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+		runtime.gc();
+		long usedBefore = runtime.totalMemory() - runtime.freeMemory();
+		long startTime = System.currentTimeMillis();
+		int[] longestWord = new int[1];
+		int wordCount = solver.solve(size, size, cells, word -> longestWord[0] = Math.max(longestWord[0], word.length()));
+		long usedAfter = runtime.totalMemory() - runtime.freeMemory();
+		System.out.println("Grid " + size + "x" + size + " solved in " + (System.currentTimeMillis() - startTime)/1000.0 + " s");
+		System.out.println("Number of words found : " + wordCount);
+		System.out.println("Longest word length : " + longestWord[0]);
+		System.out.println("Heap growth during the search (MB) : " + Math.max(0, usedAfter - usedBefore) / (1024 * 1024));
+	}
+}
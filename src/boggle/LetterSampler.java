@@ -0,0 +1,181 @@
+package boggle;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+
+import tree.CompactTree;
+
+/**
+ * This class draws random letters following a frequency distribution, with the alias method : each letter costs one random number, one multiplication and one comparison.
+ * A sampler has no mutable state, so it can be shared by all threads. Grids drawn from the same seed are always the same.
+ * @author Maxime Cao
+ *
+ */
+public final class LetterSampler {
+	private static final long ONE = 1L << 32;
+
+	/**
+	 * The frequencies of the letters in French, as used by the classic random Boggle grids
+	 */
+	public static final LetterSampler FRENCH = new LetterSampler(new double[] {8, 2, 4, 4, 13, 2, 2, 2, 7, 1, 1, 5, 3, 7, 6, 3, 1, 7, 7, 6, 5, 2, 1, 1, 1, 1});
+
+	private final long[] thresholds = new long[CompactTree.ALPHABET_SIZE];
+	private final byte[] aliases = new byte[CompactTree.ALPHABET_SIZE];
+
+	/**
+	 * This constructor builds the alias tables of a distribution
+	 * @param weights The weight of each letter, from 'a' to 'z', not necessarily normalized
+	 */
+	public LetterSampler(double[] weights) {
+		if(weights.length != CompactTree.ALPHABET_SIZE) {
+			throw new IllegalArgumentException("Please provide one weight for each letter");
+		}
+		double total = 0;
+		for(double weight : weights) {
+			if(!(weight >= 0) || Double.isInfinite(weight)) {
+				throw new IllegalArgumentException("Please provide positive weights");
+			}
+			total += weight;
+		}
+		if(total == 0) {
+			throw new IllegalArgumentException("Please provide at least one non zero weight");
+		}
+
+		// Vose's algorithm : each column holds a letter and, above its threshold, the letter of a column which had too much probability
+		double[] probabilities = new double[CompactTree.ALPHABET_SIZE];
+		int[] small = new int[CompactTree.ALPHABET_SIZE];
+		int[] large = new int[CompactTree.ALPHABET_SIZE];
+		int smallCount = 0;
+		int largeCount = 0;
+		for(int letter = 0; letter < probabilities.length; letter++) {
+			probabilities[letter] = weights[letter] * CompactTree.ALPHABET_SIZE / total;
+			if(probabilities[letter] < 1) {
+				small[smallCount++] = letter;
+			} else {
+				large[largeCount++] = letter;
+			}
+		}
+
+		while(smallCount > 0 && largeCount > 0) {
+			int lessLikely = small[--smallCount];
+			int moreLikely = large[--largeCount];
+			thresholds[lessLikely] = (long) (probabilities[lessLikely] * ONE);
+			aliases[lessLikely] = (byte) moreLikely;
+			probabilities[moreLikely] += probabilities[lessLikely] - 1;
+			if(probabilities[moreLikely] < 1) {
+				small[smallCount++] = moreLikely;
+			} else {
+				large[largeCount++] = moreLikely;
+			}
+		}
+		// The columns left are full, up to rounding errors
+		while(largeCount > 0) {
+			int letter = large[--largeCount];
+			thresholds[letter] = ONE;
+			aliases[letter] = (byte) letter;
+		}
+		while(smallCount > 0) {
+			int letter = small[--smallCount];
+			thresholds[letter] = ONE;
+			aliases[letter] = (byte) letter;
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Draws a letter
+	 * @param random The random generator
+	 * @return The letter index (0 for 'a')
+	 */
+	public int nextLetter(SplittableRandom random) {
+		return sample(random.nextLong());
+	}
+
+	/**
+	 * Fills primitive grid storage with random letters
+	 * @param cells The array receiving the letter index of each cell (0 for 'a')
+	 * @param random The random generator
+	 */
+	public void fill(byte[] cells, SplittableRandom random) {
+		for(int i = 0; i < cells.length; i++) {
+			cells[i] = (byte) sample(random.nextLong());
+		}
+	}
+
+	/**
+	 * Draws the letters of a grid, always the same for a given seed
+	 * @param count The number of letters
+	 * @param seed The seed of the grid
+	 * @return The letters of the grid
+	 */
+	public String letters(int count, long seed) {
+		return letters(count, new SplittableRandom(seed));
+	}
+
+	/**
+	 * Draws the letters of a grid
+	 * @param count The number of letters
+	 * @param random The random generator
+	 * @return The letters of the grid
+	 */
+	public String letters(int count, SplittableRandom random) {
+		char[] letters = new char[count];
+		for(int i = 0; i < count; i++) {
+			letters[i] = (char) ('a' + sample(random.nextLong()));
+		}
+		return new String(letters);
+	}
+
+	/**
+	 * Draws the letters of a grid with the random generator of the current thread, without any contention between threads
+	 * @param count The number of letters
+	 * @return The letters of the grid
+	 */
+	public String letters(int count) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		char[] letters = new char[count];
+		for(int i = 0; i < count; i++) {
+			letters[i] = (char) ('a' + sample(random.nextLong()));
+		}
+		return new String(letters);
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Converts 64 random bits into a letter : the high bits pick a column, the low bits decide between its letter and its alias
+	 * @param bits Random bits
+	 * @return The letter index (0 for 'a')
+	 */
+	private int sample(long bits) {
+		int column = (int) (((bits >>> 32) * CompactTree.ALPHABET_SIZE) >>> 32);
+		return (bits & (ONE - 1)) < thresholds[column] ? column : aliases[column];
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) {
+		int gridCount = 10_000_000;
+		byte[] cells = new byte[16];
+		SplittableRandom random = new SplittableRandom(42);
+		long checksum = 0;
+
+		for(int run = 1; run <= 3; run++) {
+			long startTime = System.currentTimeMillis();
+			for(int i = 0; i < gridCount; i++) {
+				FRENCH.fill(cells, random);
+				checksum += cells[i & 15];
+			}
+			long duration = System.currentTimeMillis() - startTime;
+			System.out.println("Run " + run + " : " + gridCount + " grids 4x4 in " + duration/1000.0 + " s (" + gridCount * 1000L / Math.max(1, duration) + " grids per second)");
+		}
+		System.out.println("Checksum : " + checksum);
+	}
+}
@@ -0,0 +1,57 @@
+package boggle;
+
+/**
+ * This class stores the neighbors of every cell of a Boggle grid in two flat arrays, so that they can be browsed without any allocation.
+ * Tables are built by Topology.
+ * @author Maxime Cao
+ *
+ */
+final class NeighborTable {
+	private final int[] offsets;
+	private final int[] neighbors;
+
+	/**
+	 * This constructor creates a table from the neighbors of each cell
+	 * @param offsets Index in neighbors of the first neighbor of each cell, followed by the total number of neighbors
+	 * @param neighbors The neighbors of all the cells, cell after cell
+	 */
+	NeighborTable(int[] offsets, int[] neighbors) {
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+	}
+
+	/**
+	 * Returns the number of cells in the grid
+	 * @return The number of cells
+	 */
+	int cellCount() {
+		return offsets.length - 1;
+	}
+
+	/**
+	 * Returns the index of the first neighbor of a cell
+	 * @param cell A cell
+	 * @return The index of its first neighbor
+	 */
+	int start(int cell) {
+		return offsets[cell];
+	}
+
+	/**
+	 * Returns the index following the last neighbor of a cell
+	 * @param cell A cell
+	 * @return The index following its last neighbor
+	 */
+	int end(int cell) {
+		return offsets[cell + 1];
+	}
+
+	/**
+	 * Returns the neighbor stored at an index
+	 * @param index An index between start(cell) and end(cell)
+	 * @return The neighboring cell
+	 */
+	int neighbor(int index) {
+		return neighbors[index];
+	}
+}
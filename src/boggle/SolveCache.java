@@ -0,0 +1,193 @@
+package boggle;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import tree.LexicographicTree;
+
+/**
+ * This class keeps the words of the last solved grids, so that a grid solved again costs a lookup instead of a search.
+ * Rotating or mirroring a squared grid does not change its words, so the 8 variants of a grid share one entry : the key is the smallest of their letter strings.
+ * The least recently used grid is evicted when the cache is full. All the methods can be called by several threads.
+ * @author Maxime Cao
+ *
+ */
+public class SolveCache {
+	private static final int SYMMETRIES = 8;
+
+	private final BoggleSolver solver;
+	private final int capacity;
+	private final Map<String, Set<String>> entries;
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates an empty cache
+	 * @param dict A dictionary of allowed words
+	 * @param capacity The maximum number of grids kept
+	 */
+	public SolveCache(LexicographicTree dict, int capacity) {
+		if(capacity < 1) {
+			throw new IllegalArgumentException("Please provide a positive capacity");
+		}
+
+		solver = new BoggleSolver(dict);
+		this.capacity = capacity;
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Set<String>> eldest) {
+				if(size() > SolveCache.this.capacity) {
+					evictionCount++;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Searches for words in a Boggle grid, or returns them from the cache if the grid (or one of its rotations or reflections) was solved recently
+	 * @param size The size of the squared grid
+	 * @param letters A string containing the (size x size) letters of the grid
+	 * @return the set of found words, which cannot be modified
+	 */
+	public Set<String> solve(int size, String letters) {
+		int sizeGrid = Topology.square(size).getCellCount();
+		if(sizeGrid > letters.length()) {
+			throw new IllegalArgumentException("Le nombre de lettres fournies n'est pas correct");
+		}
+
+		String key = canonicalForm(size, letters);
+		synchronized(entries) {
+			Set<String> words = entries.get(key);
+			if(words != null) {
+				hitCount++;
+				return words;
+			}
+			missCount++;
+		}
+
+		// The grid is solved outside the lock, so that a long search does not block the lookups of other threads
+		Set<String> words = Collections.unmodifiableSet(solver.solve(size, key));
+		synchronized(entries) {
+			entries.put(key, words);
+		}
+		return words;
+	}
+
+	/**
+	 * Get the number of grids found in the cache
+	 * @return The number of hits
+	 */
+	public long getHitCount() {
+		synchronized(entries) {
+			return hitCount;
+		}
+	}
+
+	/**
+	 * Get the number of grids which had to be solved
+	 * @return The number of misses
+	 */
+	public long getMissCount() {
+		synchronized(entries) {
+			return missCount;
+		}
+	}
+
+	/**
+	 * Get the number of grids removed from the cache to make room for new ones
+	 * @return The number of evictions
+	 */
+	public long getEvictionCount() {
+		synchronized(entries) {
+			return evictionCount;
+		}
+	}
+
+	/**
+	 * Get the share of the requests answered by the cache
+	 * @return The hit rate, between 0 and 1
+	 */
+	public double getHitRate() {
+		synchronized(entries) {
+			long requestCount = hitCount + missCount;
+			return requestCount == 0 ? 0 : hitCount / (double) requestCount;
+		}
+	}
+
+	/**
+	 * Get the number of grids in the cache
+	 * @return The number of entries
+	 */
+	public int size() {
+		synchronized(entries) {
+			return entries.size();
+		}
+	}
+
+	/**
+	 * Returns the smallest letter string among the 8 rotations and reflections of a squared grid
+	 * @param size The size of the squared grid
+	 * @param letters The letters of the grid, line after line
+	 * @return The letters of the canonical grid
+	 */
+	static String canonicalForm(int size, String letters) {
+		int sizeGrid = size * size;
+		int best = 0;
+		for(int symmetry = 1; symmetry < SYMMETRIES; symmetry++) {
+			// The strings are compared letter after letter, without being built
+			for(int i = 0; i < sizeGrid; i++) {
+				int difference = letters.charAt(sourceCell(size, i, symmetry)) - letters.charAt(sourceCell(size, i, best));
+				if(difference != 0) {
+					if(difference < 0) {
+						best = symmetry;
+					}
+					break;
+				}
+			}
+		}
+
+		char[] canonical = new char[sizeGrid];
+		for(int i = 0; i < sizeGrid; i++) {
+			canonical[i] = letters.charAt(sourceCell(size, i, best));
+		}
+		return new String(canonical);
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Returns the cell of the original grid moved to a cell by a symmetry
+	 * @param size The size of the squared grid
+	 * @param cell A cell of the transformed grid
+	 * @param symmetry A symmetry : bit 0 mirrors the lines, bit 1 mirrors the columns, bit 2 swaps lines and columns
+	 * @return The cell of the original grid
+	 */
+	private static int sourceCell(int size, int cell, int symmetry) {
+		int line = cell / size;
+		int column = cell % size;
+		if((symmetry & 1) != 0) {
+			line = size - 1 - line;
+		}
+		if((symmetry & 2) != 0) {
+			column = size - 1 - column;
+		}
+		return (symmetry & 4) != 0 ? column * size + line : line * size + column;
+	}
+}
@@ -0,0 +1,108 @@
+package boggle;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import tree.CompactTree;
+
+/**
+ * This class numbers the multi-letter tiles (such as "qu") of a Boggle grid.
+ * A cell holding a single letter is encoded by the letter index (0 for 'a'), a cell holding several letters by FIRST_TILE plus the index of its tile,
+ * so that single letters keep a direct, allocation-free path in the solvers.
+ * @author Maxime Cao
+ *
+ */
+final class TileSet {
+	static final int FIRST_TILE = CompactTree.ALPHABET_SIZE;
+	private static final int MAX_TILES = Byte.MAX_VALUE - FIRST_TILE + 1;
+
+	private final List<String> tiles = new ArrayList<>();
+	private byte[][] sequences = new byte[0][];
+
+	/**
+	 * Encodes the content of a cell, registering it if it is a new multi-letter tile
+	 * @param tile One or several lowercase letters
+	 * @return The value of the cell
+	 */
+	int encode(String tile) {
+		if(tile.isEmpty()) {
+			throw new IllegalArgumentException("Please provide correct letters");
+		}
+		for(int i = 0; i < tile.length(); i++) {
+			char currentLetter = tile.charAt(i);
+			if(currentLetter < 'a' || currentLetter > 'z') {
+				throw new IllegalArgumentException("Please provide correct letters");
+			}
+		}
+
+		if(tile.length() == 1) {
+			return tile.charAt(0) - 'a';
+		}
+
+		int index = tiles.indexOf(tile);
+		if(index == -1) {
+			if(tiles.size() == MAX_TILES) {
+				throw new IllegalArgumentException("Too many different multi-letter tiles");
+			}
+			index = tiles.size();
+			tiles.add(tile);
+			byte[] sequence = new byte[tile.length()];
+			for(int i = 0; i < sequence.length; i++) {
+				sequence[i] = (byte) (tile.charAt(i) - 'a');
+			}
+			byte[][] newSequences = new byte[tiles.size()][];
+			System.arraycopy(sequences, 0, newSequences, 0, sequences.length);
+			newSequences[index] = sequence;
+			sequences = newSequences;
+		}
+		return FIRST_TILE + index;
+	}
+
+	/**
+	 * Forgets all the multi-letter tiles
+	 */
+	void clear() {
+		if(!tiles.isEmpty()) {
+			tiles.clear();
+			sequences = new byte[0][];
+		}
+	}
+
+	/**
+	 * Follows the letters of a cell in a tree
+	 * @param tree The tree
+	 * @param node The node of the letters already used
+	 * @param value The value of the cell
+	 * @return The node reached, or CompactTree.NO_NODE if the letters of the cell do not follow the node
+	 */
+	int walk(CompactTree tree, int node, int value) {
+		if(value < FIRST_TILE) {
+			return tree.child(node, value);
+		}
+		for(byte letter : sequences[value - FIRST_TILE]) {
+			node = tree.child(node, letter);
+			if(node == CompactTree.NO_NODE) {
+				return CompactTree.NO_NODE;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the first letter of a cell
+	 * @param value The value of the cell
+	 * @return The index of its first letter (0 for 'a')
+	 */
+	int firstLetter(int value) {
+		return value < FIRST_TILE ? value : sequences[value - FIRST_TILE][0];
+	}
+
+	/**
+	 * Returns the letters of a cell
+	 * @param value The value of the cell
+	 * @return The letters of the cell
+	 */
+	String text(int value) {
+		return value < FIRST_TILE ? String.valueOf((char) ('a' + value)) : tiles.get(value - FIRST_TILE);
+	}
+}
@@ -0,0 +1,295 @@
+package boggle;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class describes the shape of a Boggle grid : its number of lines and columns and the neighbors of each cell.
+ * Cells are numbered line after line. The neighbors are computed once, when the topology is created, and are shared by all the grids using it.
+ * The predefined topologies of small grids are also kept for the next grids of the same shape; the ones of larger grids, whose neighbors take megabytes, are built on each call.
+ * @author Maxime Cao
+ *
+ */
+public final class Topology {
+	private static final int RECTANGLE = 0;
+	private static final int TORUS = 1;
+	private static final int HEXAGONAL = 2;
+	// Only the predefined topologies of up to 10x10 cells are kept, which covers the classic grids while bounding the memory they take
+	private static final int MAX_KEPT_CELLS = 100;
+	// A predefined topology gives each cell up to 8 neighbors, kept in a single array
+	private static final int MAX_PREDEFINED_CELLS = Integer.MAX_VALUE / 8;
+	private static final Map<Long, Topology> TOPOLOGIES = new ConcurrentHashMap<>();
+
+	private final int lines;
+	private final int columns;
+	private final boolean shiftedOddLines;
+	private final NeighborTable neighbors;
+
+	/**
+	 * This constructor creates a topology
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @param shiftedOddLines True if odd lines are drawn with a half-cell shift (hexagonal grids)
+	 * @param neighbors The neighbors of each cell
+	 */
+	private Topology(int lines, int columns, boolean shiftedOddLines, NeighborTable neighbors) {
+		this.lines = lines;
+		this.columns = columns;
+		this.shiftedOddLines = shiftedOddLines;
+		this.neighbors = neighbors;
+	}
+
+	/*
+	 * FACTORIES
+	 */
+
+	/**
+	 * Returns a square grid where each cell is linked to its 8 surrounding cells (the classic Boggle grid)
+	 * @param size The size of the squared grid
+	 * @return The topology of the grid
+	 */
+	public static Topology square(int size) {
+		return rectangle(size, size);
+	}
+
+	/**
+	 * Returns a rectangular grid where each cell is linked to its 8 surrounding cells
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @return The topology of the grid
+	 */
+	public static Topology rectangle(int lines, int columns) {
+		return get(RECTANGLE, lines, columns);
+	}
+
+	/**
+	 * Returns a rectangular grid whose borders wrap around : the first and last lines are adjacent, as are the first and last columns
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @return The topology of the grid
+	 */
+	public static Topology torus(int lines, int columns) {
+		return get(TORUS, lines, columns);
+	}
+
+	/**
+	 * Returns a grid of hexagonal cells, each one linked to its 6 surrounding cells. Odd lines are shifted by half a cell to the right.
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @return The topology of the grid
+	 */
+	public static Topology hexagonal(int lines, int columns) {
+		return get(HEXAGONAL, lines, columns);
+	}
+
+	/**
+	 * Returns a grid with any shape. The neighbors are checked and copied : links must be symmetrical and a cell cannot be its own neighbor.
+	 * @param lines The number of lines, used to display the grid
+	 * @param columns The number of columns, used to display the grid
+	 * @param neighbors The neighbors of each cell, for the (lines x columns) cells
+	 * @return The topology of the grid
+	 */
+	public static Topology custom(int lines, int columns, int[][] neighbors) {
+		verifyDimensions(lines, columns);
+		int cellCount = lines * columns;
+		if(neighbors.length != cellCount) {
+			throw new IllegalArgumentException("Please provide the neighbors of every cell");
+		}
+
+		int[] offsets = new int[cellCount + 1];
+		int total = 0;
+		for(int cell = 0; cell < cellCount; cell++) {
+			offsets[cell] = total;
+			total += neighbors[cell].length;
+		}
+		offsets[cellCount] = total;
+
+		int[] flatNeighbors = new int[total];
+		for(int cell = 0; cell < cellCount; cell++) {
+			int[] cellNeighbors = neighbors[cell];
+			for(int i = 0; i < cellNeighbors.length; i++) {
+				int neighbor = cellNeighbors[i];
+				if(neighbor < 0 || neighbor >= cellCount || neighbor == cell || !contains(neighbors[neighbor], 0, neighbors[neighbor].length, cell)
+						|| contains(cellNeighbors, 0, i, neighbor)) {
+					throw new IllegalArgumentException("Please provide symmetrical links between distinct cells");
+				}
+				flatNeighbors[offsets[cell] + i] = neighbor;
+			}
+		}
+		return new Topology(lines, columns, false, new NeighborTable(offsets, flatNeighbors));
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Get the number of lines of the grid
+	 * @return The number of lines
+	 */
+	public int getLines() {
+		return lines;
+	}
+
+	/**
+	 * Get the number of columns of the grid
+	 * @return The number of columns
+	 */
+	public int getColumns() {
+		return columns;
+	}
+
+	/**
+	 * Get the number of cells of the grid
+	 * @return The number of cells
+	 */
+	public int getCellCount() {
+		return lines * columns;
+	}
+
+	/**
+	 * Get the neighbors of a cell
+	 * @param cell A cell, numbered line after line from 0
+	 * @return A copy of the neighbors of the cell
+	 */
+	public int[] getNeighbors(int cell) {
+		int[] cellNeighbors = new int[neighbors.end(cell) - neighbors.start(cell)];
+		for(int i = 0; i < cellNeighbors.length; i++) {
+			cellNeighbors[i] = neighbors.neighbor(neighbors.start(cell) + i);
+		}
+		return cellNeighbors;
+	}
+
+	/**
+	 * Determines whether odd lines are drawn with a half-cell shift
+	 * @return True for hexagonal grids, false otherwise
+	 */
+	public boolean hasShiftedOddLines() {
+		return shiftedOddLines;
+	}
+
+	/**
+	 * Get the neighbor table shared by the grids using this topology
+	 * @return The neighbor table
+	 */
+	NeighborTable neighbors() {
+		return neighbors;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Returns a predefined topology, built on first use for small grids and on each call for the other ones
+	 * @param kind The kind of topology
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @return The topology
+	 */
+	private static Topology get(int kind, int lines, int columns) {
+		verifyDimensions(lines, columns);
+		int cellCount = lines * columns;
+		if(cellCount > MAX_PREDEFINED_CELLS) {
+			throw new IllegalArgumentException("Please provide a grid with less than 2^28 cells");
+		}
+		if(cellCount > MAX_KEPT_CELLS) {
+			return build(kind, lines, columns);
+		}
+		long key = ((long) kind << 62) | ((long) lines << 31) | columns;
+		return TOPOLOGIES.computeIfAbsent(key, k -> build(kind, lines, columns));
+	}
+
+	/**
+	 * Builds a predefined topology
+	 * @param kind The kind of topology
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @return The topology
+	 */
+	private static Topology build(int kind, int lines, int columns) {
+		int cellCount = lines * columns;
+		int[] offsets = new int[cellCount + 1];
+		int[] neighbors = new int[cellCount * 8];
+		int count = 0;
+
+		for(int cell = 0; cell < cellCount; cell++) {
+			offsets[cell] = count;
+			int line = cell / columns;
+			int column = cell % columns;
+			for(int i = line - 1; i <= line + 1; i++) {
+				for(int j = column - 1; j <= column + 1; j++) {
+					int neighbor = neighborOf(kind, lines, columns, line, column, i, j);
+					// A small torus can reach the same cell from two sides, or come back to the current cell
+					if(neighbor != -1 && neighbor != cell && !contains(neighbors, offsets[cell], count, neighbor)) {
+						neighbors[count++] = neighbor;
+					}
+				}
+			}
+		}
+		offsets[cellCount] = count;
+		return new Topology(lines, columns, kind == HEXAGONAL, new NeighborTable(offsets, Arrays.copyOf(neighbors, count)));
+	}
+
+	/**
+	 * Returns the cell found at a position next to the current cell
+	 * @param kind The kind of topology
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 * @param currentLine The line of the current cell
+	 * @param currentColumn The column of the current cell
+	 * @param line The line of the position
+	 * @param column The column of the position
+	 * @return The cell at this position, or -1 if there is none
+	 */
+	private static int neighborOf(int kind, int lines, int columns, int currentLine, int currentColumn, int line, int column) {
+		if(kind == TORUS) {
+			line = (line + lines) % lines;
+			column = (column + columns) % columns;
+		} else if(kind == HEXAGONAL && line != currentLine) {
+			// Above and below, even lines touch the cells on their left, odd lines (shifted to the right) the cells on their right
+			int unreachedColumn = currentLine % 2 == 0 ? currentColumn + 1 : currentColumn - 1;
+			if(column == unreachedColumn) {
+				return -1;
+			}
+		}
+
+		if(line < 0 || line >= lines || column < 0 || column >= columns) {
+			return -1;
+		}
+		return line * columns + column;
+	}
+
+	/**
+	 * Checks if a value is present in a part of an array
+	 * @param values The array
+	 * @param from The first index checked
+	 * @param to The index following the last index checked
+	 * @param value The value to search for
+	 * @return True if the value is present, false otherwise
+	 */
+	private static boolean contains(int[] values, int from, int to, int value) {
+		for(int i = from; i < to; i++) {
+			if(values[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks if the dimensions of a grid are valid
+	 * @param lines The number of lines
+	 * @param columns The number of columns
+	 */
+	private static void verifyDimensions(int lines, int columns) {
+		if(lines < 1 || columns < 1) {
+			throw new IllegalArgumentException("La taille de la grille ne doit pas être inférieure à 1");
+		}
+		// The cells are numbered with ints, and the neighbors are found from an array of (cell count + 1) offsets
+		if((long) lines * columns >= Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Please provide a grid with less than 2^31 - 1 cells");
+		}
+	}
+}
@@ -1,12 +1,13 @@
 package boggle;
 
 /**
- * This class represents a vertex in a graph. Each vertex contains a letter (a character)
+ * This class represents a vertex in a graph. Each vertex contains a letter (a character), or a tile of several letters such as "qu"
  * @author Maxime Cao
  *
  */
 public class Vertex {
-	private final char letter;
+	private char letter;
+	private String tile;
 	
 	/**
 	 * This constructor creates a vertex based on a letter given as an argument
@@ -16,6 +17,15 @@ public class Vertex {
 		this.letter = letter;
 	}
 	
+	/**
+	 * This constructor creates a vertex based on a tile of one or several letters
+	 * @param tile The letters of the vertex
+	 */
+	public Vertex(String tile) {
+		this.letter = tile.charAt(0);
+		this.tile = tile.length() > 1 ? tile : null;
+	}
+	
 	/**
 	 * Get the letter of the vertex
 	 * @return The letter of the vertex
@@ -24,11 +34,36 @@ public class Vertex {
 		return letter;
 	}
 
+	/**
+	 * Get all the letters of the vertex
+	 * @return The letters of the vertex
+	 */
+	public String getVertexTile() {
+		return tile != null ? tile : String.valueOf(letter);
+	}
+
+	/**
+	 * Determines whether the vertex holds several letters
+	 * @return True if the vertex holds a multi-letter tile, false otherwise
+	 */
+	public boolean isMultiLetter() {
+		return tile != null;
+	}
+
+	/**
+	 * Changes the letter of the vertex
+	 * @param letter The new letter of the vertex
+	 */
+	void setVertexValue(char letter) {
+		this.letter = letter;
+		this.tile = null;
+	}
+
 	/**
 	 * Returns the vertex as a string
 	 */
 	@Override
 	public String toString() {
-		return String.format("%c",letter);
+		return tile != null ? tile : String.format("%c",letter);
 	}
 }
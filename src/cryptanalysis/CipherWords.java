@@ -0,0 +1,217 @@
+package cryptanalysis;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class holds the distinct words of a cryptogram, parsed once : for each word, its letter indexes, its number of occurrences and its letter pattern.
+ * The words are identified by their index, longest words first, words of the same length in order of first appearance in the cryptogram.
+ * @author Maxime Cao
+ *
+ */
+public final class CipherWords {
+	private final String[] words;
+	private final byte[][] letters;
+	private final int[][] patterns;
+	private final long[] patternKeys;
+	private final int[] letterMasks;
+	private final int[][] wordsWithLetter;
+	private final int[] counts;
+	private final int totalCount;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : extracts the words (sequences of characters between white spaces) of a text
+	 * @param text The cryptogram
+	 * @param minLength The minimum length of the kept words
+	 */
+	public CipherWords(CharSequence text, int minLength) {
+		// The distinct words are found with a hash map, in order of first appearance
+		Map<String, Integer> indexes = new HashMap<>();
+		String[] distinctWords = new String[16];
+		int[] distinctCounts = new int[16];
+		int distinctCount = 0;
+		int maxLength = 0;
+		int kept = 0;
+
+		int start = 0;
+		while(start < text.length()) {
+			while(start < text.length() && isWhitespace(text.charAt(start))) {
+				start++;
+			}
+			int end = start;
+			while(end < text.length() && !isWhitespace(text.charAt(end))) {
+				end++;
+			}
+			if(end > start && end - start >= minLength) {
+				String word = text.subSequence(start, end).toString();
+				Integer index = indexes.putIfAbsent(word, distinctCount);
+				if(index == null) {
+					if(distinctCount == distinctWords.length) {
+						distinctWords = Arrays.copyOf(distinctWords, distinctCount * 2);
+						distinctCounts = Arrays.copyOf(distinctCounts, distinctCount * 2);
+					}
+					distinctWords[distinctCount] = word;
+					distinctCounts[distinctCount++] = 1;
+					maxLength = Math.max(maxLength, word.length());
+				} else {
+					distinctCounts[index]++;
+				}
+				kept++;
+			}
+			start = end;
+		}
+
+		// Counting sort on the length, which keeps the order of appearance within a length
+		int[] firstOfLength = new int[maxLength + 2];
+		for(int i = 0; i < distinctCount; i++) {
+			firstOfLength[maxLength - distinctWords[i].length() + 1]++;
+		}
+		for(int length = 1; length < firstOfLength.length; length++) {
+			firstOfLength[length] += firstOfLength[length - 1];
+		}
+
+		words = new String[distinctCount];
+		counts = new int[distinctCount];
+		for(int i = 0; i < distinctCount; i++) {
+			int position = firstOfLength[maxLength - distinctWords[i].length()]++;
+			words[position] = distinctWords[i];
+			counts[position] = distinctCounts[i];
+		}
+
+		letters = new byte[distinctCount][];
+		patterns = new int[distinctCount][];
+		patternKeys = new long[distinctCount];
+		letterMasks = new int[distinctCount];
+		int[] letterCounts = new int[SubstitutionEngine.ALPHABET_SIZE];
+		for(int i = 0; i < distinctCount; i++) {
+			letters[i] = SubstitutionEngine.encode(words[i]);
+			// The pattern is taken on the letters, so that its positions are the ones of the letters, whatever the punctuation
+			patterns[i] = PatternIndex.pattern(letters[i]);
+			patternKeys[i] = PatternIndex.patternKey(patterns[i]);
+			for(byte letter : letters[i]) {
+				letterMasks[i] |= 1 << letter;
+			}
+			for(int mask = letterMasks[i]; mask != 0; mask &= mask - 1) {
+				letterCounts[Integer.numberOfTrailingZeros(mask)]++;
+			}
+		}
+
+		// The words containing each letter, so that changing the substitution of a letter only touches them
+		wordsWithLetter = new int[SubstitutionEngine.ALPHABET_SIZE][];
+		for(int letter = 0; letter < wordsWithLetter.length; letter++) {
+			wordsWithLetter[letter] = new int[letterCounts[letter]];
+			letterCounts[letter] = 0;
+		}
+		for(int i = 0; i < distinctCount; i++) {
+			for(int mask = letterMasks[i]; mask != 0; mask &= mask - 1) {
+				int letter = Integer.numberOfTrailingZeros(mask);
+				wordsWithLetter[letter][letterCounts[letter]++] = i;
+			}
+		}
+		totalCount = kept;
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Get the number of distinct words
+	 * @return The number of distinct words
+	 */
+	public int size() {
+		return words.length;
+	}
+
+	/**
+	 * Get the number of words of the cryptogram, repetitions included
+	 * @return The number of occurrences of all the words
+	 */
+	public int getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Get a word as it appears in the cryptogram
+	 * @param index The index of the word
+	 * @return The word
+	 */
+	public String getWord(int index) {
+		return words[index];
+	}
+
+	/**
+	 * Get the number of occurrences of a word in the cryptogram
+	 * @param index The index of the word
+	 * @return The number of occurrences
+	 */
+	public int getCount(int index) {
+		return counts[index];
+	}
+
+	/**
+	 * Get the pattern key of the letters of a word
+	 * @param index The index of the word
+	 * @return The pattern key (see PatternIndex.patternKey)
+	 */
+	public long getPatternKey(int index) {
+		return patternKeys[index];
+	}
+
+	/**
+	 * Get the letters of a word, the other characters being dropped.
+	 * The returned array is shared and must not be modified.
+	 * @param index The index of the word
+	 * @return The letter indexes of the word (0 for 'A')
+	 */
+	byte[] getLetters(int index) {
+		return letters[index];
+	}
+
+	/**
+	 * Get the pattern of the letters of a word, the other characters being dropped.
+	 * The returned array is shared and must not be modified.
+	 * @param index The index of the word
+	 * @return The rank of first appearance of the letter of each position of getLetters
+	 */
+	int[] getPattern(int index) {
+		return patterns[index];
+	}
+
+	/**
+	 * Get the letters used by a word
+	 * @param index The index of the word
+	 * @return A mask with bit i set if the word contains the letter of index i
+	 */
+	int getLetterMask(int index) {
+		return letterMasks[index];
+	}
+
+	/**
+	 * Get the words containing a letter.
+	 * The returned array is shared and must not be modified.
+	 * @param letter A letter index (0 for 'A')
+	 * @return The indexes of the words containing the letter, in increasing order
+	 */
+	int[] getWordsWithLetter(int letter) {
+		return wordsWithLetter[letter];
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Determines whether a character separates words, as \s in a regular expression
+	 * @param character A character
+	 * @return True if the character is a white space, false otherwise
+	 */
+	private static boolean isWhitespace(char character) {
+		return character == ' ' || character == '\n' || character == '\t' || character == '\r' || character == '\f' || character == '\u000B';
+	}
+}
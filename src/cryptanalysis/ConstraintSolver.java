@@ -0,0 +1,410 @@
+package cryptanalysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class decrypts a text by constraint propagation : each distinct cipher word is a variable whose domain is the list of its compatible dictionary words,
+ * and each cipher letter has a domain of plain letters, kept as a bitmask. Choosing a word for a variable fixes its letters ; a plain letter given to a cipher letter
+ * is removed from the domains of the other cipher letters, and every compatible word using a letter outside the domains is removed from its variable.
+ * The search always chooses the variable with the fewest compatible words left, and backtracks on contradictions.
+ * A text also contains words which are not in the dictionary (names, foreign words) : a variable may be left out, at the cost of its number of occurrences,
+ * and the search looks for the key leaving out the fewest occurrences, pruning every branch which already leaves out as many as the best key found.
+ * @author Maxime Cao
+ *
+ */
+public final class ConstraintSolver {
+	private static final int MIN_WORD_LENGTH = 3;
+	// Only the words appearing at least this many times are variables : the rare words constrain little and slow down every propagation
+	private static final int MIN_OCCURRENCES = 5;
+	private static final int ALL_LETTERS = (1 << SubstitutionEngine.ALPHABET_SIZE) - 1;
+	private static final String DICTIONARY = "mots/dictionnaire_FR_sans_accents.txt";
+	private static final String CRYPTOGRAM_FILE = "txt/Plus fort que Sherlock Holmes (cryptogram).txt";
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+
+	private final String cryptogram;
+	private final LexicographicTree dictionnary;
+
+	// The variables : the distinct cipher letters of each word, in order of first appearance, and the same letters of each compatible word, most likely word first
+	private byte[][] variableLetters;
+	private byte[][] variableCandidates;
+	private int[] variableCosts;
+
+	// The state of the search : the domain of each cipher letter, the compatible words left for each variable, and whether it was left out
+	private int[] domains;
+	private int[][] candidates;
+	private boolean[] leftOut;
+
+	private long startTime;
+	private long deadline;
+	private long nodeCount;
+	private int bestCost;
+	private int[] bestDomains;
+	private long bestTime;
+	private boolean complete;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : prepares the resolution of a cryptogram
+	 * @param cryptogram The cryptogram (ciphertext)
+	 * @param dict The dictionary
+	 */
+	public ConstraintSolver(String cryptogram, LexicographicTree dict) {
+		if(dict == null || cryptogram == null || cryptogram.isEmpty()) {
+			throw new IllegalArgumentException("Please provide correct cryptogram and dictionnary");
+		}
+
+		this.cryptogram = cryptogram;
+		this.dictionnary = dict;
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Searches the decoding alphabet which leaves out the fewest occurrences of cipher words.
+	 * When the search ends within the time budget, no alphabet leaves out fewer occurrences ; getSolutionTime tells when the returned alphabet was found, usually long before.
+	 * The cipher letters not fixed by the search (letters of words left out, or of rare words only) get the remaining plain letters, the most frequent first.
+	 * @param timeBudget The maximum duration of the search in milliseconds, after which the best alphabet found so far is returned ; the variables are created beforehand, on first call
+	 * @return The decoding alphabet
+	 */
+	public String solve(long timeBudget) {
+		if(timeBudget < 0) {
+			throw new IllegalArgumentException("Please provide a positive time budget");
+		}
+		createVariables();
+		startTime = System.nanoTime();
+		deadline = startTime + Math.min(timeBudget, Long.MAX_VALUE / 2_000_000) * 1_000_000;
+		nodeCount = 0;
+		bestCost = Integer.MAX_VALUE;
+		bestDomains = null;
+
+		domains = new int[SubstitutionEngine.ALPHABET_SIZE];
+		Arrays.fill(domains, ALL_LETTERS);
+		candidates = new int[variableLetters.length][];
+		for(int variable = 0; variable < candidates.length; variable++) {
+			candidates[variable] = new int[variableCandidates[variable].length / variableLetters[variable].length];
+			Arrays.setAll(candidates[variable], candidate -> candidate);
+		}
+		leftOut = new boolean[variableLetters.length];
+		search(0);
+		complete = System.nanoTime() <= deadline;
+
+		return completeAlphabet(bestDomains == null ? domains : bestDomains);
+	}
+
+	/**
+	 * Get the number of occurrences of the words left out by the last resolution
+	 * @return The number of occurrences of the variables left out, or -1 if no resolution ended
+	 */
+	public int getLeftOutCount() {
+		return bestDomains == null ? -1 : bestCost;
+	}
+
+	/**
+	 * Get the time at which the last resolution found the alphabet returned
+	 * @return The duration of the search until the best alphabet was found, in milliseconds, or -1 if no resolution ended
+	 */
+	public long getSolutionTime() {
+		return bestDomains == null ? -1 : bestTime / 1_000_000;
+	}
+
+	/**
+	 * Determines whether the last resolution explored all the assignments, which proves that no alphabet leaves out fewer occurrences than the returned one
+	 * @return True if the search ended within the time budget, false otherwise
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 * Get the number of nodes explored by the last resolution
+	 * @return The number of nodes explored
+	 */
+	public long getNodeCount() {
+		return nodeCount;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Creates a variable for each cipher word appearing often enough, with the letters of its compatible words
+	 */
+	private void createVariables() {
+		if(variableLetters != null) {
+			return;
+		}
+
+		PatternIndex patternIndex = PatternIndex.of(dictionnary);
+		CipherWords words = new CipherWords(cryptogram, MIN_WORD_LENGTH);
+		int variableCount = 0;
+		for(int word = 0; word < words.size(); word++) {
+			if(words.getCount(word) >= MIN_OCCURRENCES) {
+				variableCount++;
+			}
+		}
+
+		variableLetters = new byte[variableCount][];
+		variableCandidates = new byte[variableCount][];
+		variableCosts = new int[variableCount];
+		byte[] wordLetters = new byte[patternIndex.getDictionary().height(CompactTree.ROOT)];
+		int variable = 0;
+		for(int word = 0; word < words.size(); word++) {
+			if(words.getCount(word) < MIN_OCCURRENCES) {
+				continue;
+			}
+
+			// Only the first appearance of each letter matters : the pattern gives the other ones.
+			// It is taken on the letters of the word, so its positions are the ones of the cipher letters and of the dictionary words, whatever the punctuation
+			int[] pattern = words.getPattern(word);
+			byte[] cipherLetters = words.getLetters(word);
+			int[] firstPositions = new int[pattern.length];
+			int distinctCount = 0;
+			for(int i = 0; i < pattern.length; i++) {
+				if(pattern[i] == distinctCount) {
+					firstPositions[distinctCount++] = i;
+				}
+			}
+
+			variableLetters[variable] = new byte[distinctCount];
+			for(int j = 0; j < distinctCount; j++) {
+				variableLetters[variable][j] = cipherLetters[firstPositions[j]];
+			}
+			int[] compatibleWords = patternIndex.getRankedCompatibleWordIds(pattern, words.getPatternKey(word));
+			variableCandidates[variable] = new byte[compatibleWords.length * distinctCount];
+			for(int candidate = 0; candidate < compatibleWords.length; candidate++) {
+				patternIndex.readWord(compatibleWords[candidate], wordLetters);
+				for(int j = 0; j < distinctCount; j++) {
+					variableCandidates[variable][candidate * distinctCount + j] = wordLetters[firstPositions[j]];
+				}
+			}
+			variableCosts[variable] = words.getCount(word);
+			variable++;
+		}
+	}
+
+	/**
+	 * Explores the assignments of the variables left, most constrained variable first, and records the best complete one
+	 * @param cost The number of occurrences of the variables left out so far
+	 */
+	private void search(int cost) {
+		nodeCount++;
+		if(System.nanoTime() > deadline) {
+			return;
+		}
+
+		// Most constrained variable first : the fewest compatible words left, then the most occurrences
+		int chosen = -1;
+		for(int variable = 0; variable < candidates.length; variable++) {
+			if(!leftOut[variable] && !isFixed(variable) && (chosen < 0 || candidates[variable].length < candidates[chosen].length
+					|| candidates[variable].length == candidates[chosen].length && variableCosts[variable] > variableCosts[chosen])) {
+				chosen = variable;
+			}
+		}
+		if(chosen < 0) {
+			if(cost < bestCost) {
+				bestCost = cost;
+				bestDomains = domains.clone();
+				bestTime = System.nanoTime() - startTime;
+			}
+			return;
+		}
+
+		int[] savedDomains = domains.clone();
+		int[][] savedCandidates = candidates.clone();
+		boolean[] savedLeftOut = leftOut.clone();
+		int[] chosenCandidates = candidates[chosen];
+		for(int i = 0; i < chosenCandidates.length && System.nanoTime() <= deadline; i++) {
+			int newCost = assign(chosen, chosenCandidates[i], cost);
+			if(newCost < bestCost) {
+				search(newCost);
+			}
+			System.arraycopy(savedDomains, 0, domains, 0, domains.length);
+			System.arraycopy(savedCandidates, 0, candidates, 0, candidates.length);
+			System.arraycopy(savedLeftOut, 0, leftOut, 0, leftOut.length);
+		}
+
+		// Last choice : the cipher word is not in the dictionary
+		if(cost + variableCosts[chosen] < bestCost) {
+			leftOut[chosen] = true;
+			search(cost + variableCosts[chosen]);
+			leftOut[chosen] = false;
+		}
+	}
+
+	/**
+	 * Gives a compatible word to a variable and propagates the constraints : the fixed letters are removed from the other domains,
+	 * and the compatible words of the other variables are filtered by the new domains
+	 * @param variable The variable
+	 * @param candidate The index of the compatible word in the letters of the variable
+	 * @param cost The number of occurrences of the variables left out so far
+	 * @return The new number of occurrences of the variables left out, or Integer.MAX_VALUE if a cipher letter has no plain letter left
+	 */
+	private int assign(int variable, int candidate, int cost) {
+		byte[] letters = variableLetters[variable];
+		int fixedLetters = 0;
+		for(int j = 0; j < letters.length; j++) {
+			domains[letters[j]] = 1 << variableCandidates[variable][candidate * letters.length + j];
+		}
+
+		// Bijectivity : a plain letter fixed for a cipher letter is removed from the others, which may fix them in turn
+		boolean changed = true;
+		while(changed) {
+			changed = false;
+			for(int cipherLetter = 0; cipherLetter < domains.length; cipherLetter++) {
+				int domain = domains[cipherLetter];
+				if(domain == 0) {
+					return Integer.MAX_VALUE;
+				}
+				if((domain & (domain - 1)) == 0 && (fixedLetters & (1 << cipherLetter)) == 0) {
+					fixedLetters |= 1 << cipherLetter;
+					for(int other = 0; other < domains.length; other++) {
+						if(other != cipherLetter && (domains[other] & domain) != 0) {
+							domains[other] &= ~domain;
+							changed = true;
+						}
+					}
+				}
+			}
+		}
+
+		// The compatible words using a letter outside the domains are removed ; a variable without compatible words is left out
+		for(int other = 0; other < candidates.length && cost < bestCost; other++) {
+			if(!leftOut[other]) {
+				candidates[other] = filterCandidates(other, candidates[other]);
+				if(candidates[other].length == 0) {
+					leftOut[other] = true;
+					cost += variableCosts[other];
+				}
+			}
+		}
+		return cost;
+	}
+
+	/**
+	 * Keeps the compatible words of a variable whose letters are all in the domains of the cipher letters
+	 * @param variable The variable
+	 * @param variableCandidateList The indexes of the compatible words left
+	 * @return The indexes of the compatible words still possible, in the same order ; the same array if none was removed
+	 */
+	private int[] filterCandidates(int variable, int[] variableCandidateList) {
+		byte[] letters = variableLetters[variable];
+		byte[] candidateLetters = variableCandidates[variable];
+		int[] kept = null;
+		int keptCount = 0;
+		for(int i = 0; i < variableCandidateList.length; i++) {
+			int offset = variableCandidateList[i] * letters.length;
+			boolean possible = true;
+			for(int j = 0; j < letters.length && possible; j++) {
+				possible = (domains[letters[j]] & (1 << candidateLetters[offset + j])) != 0;
+			}
+			if(!possible && kept == null) {
+				kept = Arrays.copyOf(variableCandidateList, variableCandidateList.length);
+				keptCount = i;
+			} else if(possible && kept != null) {
+				kept[keptCount++] = variableCandidateList[i];
+			}
+		}
+		return kept == null ? variableCandidateList : Arrays.copyOf(kept, keptCount);
+	}
+
+	/**
+	 * Determines whether all the letters of a variable are fixed, which leaves it at most one compatible word
+	 * @param variable The variable
+	 * @return True if the domain of each letter of the variable has a single plain letter
+	 */
+	private boolean isFixed(int variable) {
+		for(byte letter : variableLetters[variable]) {
+			if((domains[letter] & (domains[letter] - 1)) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Builds a complete decoding alphabet from domains : the fixed cipher letters keep their plain letter, the others get the plain letters left,
+	 * the most frequent cipher letters getting the most frequent plain letters
+	 * @param letterDomains The domain of each cipher letter
+	 * @return The decoding alphabet
+	 */
+	private String completeAlphabet(int[] letterDomains) {
+		byte[] table = new byte[SubstitutionEngine.ALPHABET_SIZE];
+		int usedLetters = 0;
+		Integer[] freeCipherLetters = new Integer[SubstitutionEngine.ALPHABET_SIZE];
+		int freeCount = 0;
+		for(int cipherLetter = 0; cipherLetter < table.length; cipherLetter++) {
+			int domain = letterDomains[cipherLetter];
+			if((domain & (domain - 1)) == 0 && domain != 0 && (usedLetters & domain) == 0) {
+				table[cipherLetter] = (byte) Integer.numberOfTrailingZeros(domain);
+				usedLetters |= domain;
+			} else {
+				freeCipherLetters[freeCount++] = cipherLetter;
+			}
+		}
+
+		int[] cipherCounts = new int[SubstitutionEngine.ALPHABET_SIZE];
+		for(int i = 0; i < cryptogram.length(); i++) {
+			int letter = SubstitutionEngine.letterIndex(cryptogram.charAt(i));
+			if(letter >= 0) {
+				cipherCounts[letter]++;
+			}
+		}
+		Arrays.sort(freeCipherLetters, 0, freeCount, (a, b) -> cipherCounts[b] - cipherCounts[a]);
+		for(int i = 0; i < freeCount; i++) {
+			int plainLetter = -1;
+			for(int letter = 0; letter < SubstitutionEngine.ALPHABET_SIZE; letter++) {
+				if((usedLetters & (1 << letter)) == 0 && (plainLetter < 0 || LetterStatistics.FRENCH_FREQUENCIES[letter] > LetterStatistics.FRENCH_FREQUENCIES[plainLetter])) {
+					plainLetter = letter;
+				}
+			}
+			table[freeCipherLetters[i]] = (byte) plainLetter;
+			usedLetters |= 1 << plainLetter;
+		}
+		return SubstitutionEngine.toAlphabet(table);
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) throws IOException {
+		System.out.print("Loading dictionary... ");
+		LexicographicTree dict = new LexicographicTree(DICTIONARY);
+		System.out.println("done.");
+		System.out.println();
+		String cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE), StandardCharsets.UTF_8);
+
+		ConstraintSolver solver = new ConstraintSolver(cryptogram, dict);
+		long startTime = System.currentTimeMillis();
+		String alphabet = solver.solve(10_000);
+		System.out.println("Resolution duration : " + (System.currentTimeMillis() - startTime) / 1000.0 + ", variables included (" + solver.getNodeCount() + " nodes"
+				+ (solver.isComplete() ? ", complete search)" : ", time budget reached)"));
+		System.out.println("Best alphabet found after : " + solver.getSolutionTime() / 1000.0);
+		System.out.println("Occurrences of words left out : " + solver.getLeftOutCount());
+		startTime = System.currentTimeMillis();
+		solver.solve(10_000);
+		System.out.println("Second resolution duration : " + (System.currentTimeMillis() - startTime) / 1000.0 + ", best alphabet found after " + solver.getSolutionTime() / 1000.0);
+		System.out.println();
+
+		StringBuilder differences = new StringBuilder();
+		for(int i = 0; i < alphabet.length(); i++) {
+			differences.append(alphabet.charAt(i) == DECODING_ALPHABET.charAt(i) ? ' ' : 'x');
+		}
+		System.out.println("Decoding alphabet : " + DECODING_ALPHABET);
+		System.out.println("Solved   alphabet : " + alphabet);
+		System.out.println("Differences       : " + differences);
+	}
+}
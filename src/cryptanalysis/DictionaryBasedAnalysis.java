@@ -7,15 +7,16 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
+import tree.CompactTree;
 import tree.LexicographicTree;
 
 /**
@@ -26,6 +27,16 @@ import tree.LexicographicTree;
 public class DictionaryBasedAnalysis {
 	
 	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final int MIN_WORD_LENGTH = 3;
+	// In parallel mode, the number of cipher words and of compatible words per cipher word giving the candidates of a round
+	private static final int WORDS_PER_ROUND = 8;
+	private static final int CANDIDATES_PER_WORD = 4;
+	// In beam search, the number of most likely compatible words among which the candidates are selected, and the settings of the main program
+	private static final int RANKED_WORDS_CONSIDERED = 64;
+	private static final int BEAM_WIDTH = 3;
+	private static final int BEAM_CANDIDATES_PER_WORD = 2;
+	// The capacity of the validity cache in the main program
+	private static final int VALIDITY_CACHE_CAPACITY = 1 << 20;
 	private static final String DICTIONARY = "mots/dictionnaire_FR_sans_accents.txt";
 	
 	private static final String CRYPTOGRAM_FILE = "txt/Plus fort que Sherlock Holmes (cryptogram).txt";
@@ -33,8 +44,11 @@ public class DictionaryBasedAnalysis {
 	
 	private final String cryptogram;
 	private final LexicographicTree dictionnary;
-	private List<String> currentCompatibleWords;
-	private int currentCompatibleWordsSize;
+	private final int cacheCapacity;
+	private ValidityCache validityCache;
+	private CipherWords cipherWords;
+	private PatternIndex patternIndex;
+	private int iterationCount;
 
 
 	/**
@@ -43,15 +57,28 @@ public class DictionaryBasedAnalysis {
 	 * @param dict The dictionary
 	 */
 	public DictionaryBasedAnalysis(String cryptogram, LexicographicTree dict) {
+		this(cryptogram, dict, 0);
+	}
+
+	/**
+	 * This constructor initializes an analysis which remembers whether the decoded words are in the dictionary, so that a word decoded again by another alphabet costs one probe.
+	 * The analyses give the same alphabets with or without the cache, which only changes their speed (see ValidityCache for when it pays off).
+	 * @param cryptogram The starting cryptogram (ciphertext)
+	 * @param dict The dictionary
+	 * @param cacheCapacity The maximum number of decoded words kept in the cache, 0 for no cache
+	 */
+	public DictionaryBasedAnalysis(String cryptogram, LexicographicTree dict, int cacheCapacity) {
 		
 		if(dict ==  null || cryptogram == null || cryptogram.isEmpty()) {
 			throw new IllegalArgumentException("Please provide correct cryptogram and dictionnary");
 		}
+		if(cacheCapacity < 0 || cacheCapacity > 1 << 30) {
+			throw new IllegalArgumentException("Please provide a cache capacity between 0 and 2^30");
+		}
 		
 		this.cryptogram = cryptogram;
 		this.dictionnary = dict;
-		this.currentCompatibleWords = new ArrayList<>();
-		this.currentCompatibleWordsSize = 0;
+		this.cacheCapacity = cacheCapacity;
 	}
 	
 	/*
@@ -68,56 +95,218 @@ public class DictionaryBasedAnalysis {
 		if(!isCorrectAlphabet(alphabet)) {
 			throw new IllegalArgumentException("Please provide correct text and correct alphabet");
 		}
-		// Extract words of more than two letters from the text
-		List<String> wordsExtracted = extractWords(cryptogram);
+		patternIndex = PatternIndex.of(dictionnary);
+		iterationCount = 0;
+		// Extract words of more than two letters from the text, longest words first
+		CipherWords words = getCipherWords();
 		
-		if(!wordsExtracted.isEmpty()) {
-			List<String> currentWords = new ArrayList<>(wordsExtracted);
-			String currentExtractedWord;
+		if(words.size() > 0) {
+			// The words still to study are flagged, in the order of the extracted words
+			boolean[] currentWords = new boolean[words.size()];
+			int currentWordsCount;
+			int currentExtractedWord = 0;
 			
-			Set<String> alreadyConsultedWords = new HashSet<>();
+			boolean[] alreadyConsultedWords = new boolean[words.size()];
 			Set<String> alphabetConsulted = new HashSet<>();
 			
+			// The validity of the words is kept up to date from one alphabet to the next
+			WordValidity validity = createValidity(words, SubstitutionEngine.toTable(alphabet));
+			
 			//If the alphabet is different from the letters A to Z in order, we apply a first substitution to the word list
 			if(!alphabet.equals(LETTERS)) {
-				removeValidWords(currentWords, alphabet);
+				currentWordsCount = markInvalidWords(currentWords, validity);
+			} else {
+				Arrays.fill(currentWords, true);
+				currentWordsCount = words.size();
 			}
 			
-			while(!currentWords.isEmpty()) {
+			while(currentWordsCount > 0) {
 				
-				currentExtractedWord  = currentWords.get(0);
+				while(!currentWords[currentExtractedWord]) {
+					currentExtractedWord++;
+				}
+				// The scan may go back to the first word below, while the examined word is still the one consulted and removed
+				int examinedWord = currentExtractedWord;
 				
-				if(!alreadyConsultedWords.contains(currentExtractedWord)) {
+				if(!alreadyConsultedWords[examinedWord]) {
 					
-								
-					String newAlphabet = "";
-					
-					String compatibleWord = getCompatibleWord(currentExtractedWord);
+					String compatibleWord = getCompatibleWord(examinedWord);
 					
 					if(!compatibleWord.isEmpty()) {
-						newAlphabet = updateAlphabet(alphabet,applySubstitution(currentExtractedWord, alphabet), compatibleWord);
-						if(!alphabetConsulted.contains(newAlphabet)) {
-							alphabetConsulted.add(newAlphabet);
-							//I initialize a new list that includes all the words from the beginning and, by applying a substitution with the new alphabet to each of the words, I see if I obtain a list that contains less invalid words than the currentWords list. If so, currentWords becomes newWords
-							var newWords = new ArrayList<>(wordsExtracted);
-							removeValidWords(newWords,newAlphabet);
-							if(newWords.size() < currentWords.size()) {
+						String newAlphabet = updateAlphabet(alphabet, applySubstitution(words.getLetters(examinedWord), alphabet), compatibleWord);
+						if(alphabetConsulted.add(newAlphabet)) {
+							//I count the words that are invalid with the new alphabet, only checking again the words whose letters changed, and see if there are fewer of them than in the current words. If so, they become the current words
+							byte[] newTable = SubstitutionEngine.toTable(newAlphabet);
+							iterationCount++;
+							if(validity.countInvalidWords(newTable) < currentWordsCount) {
 								alphabet = newAlphabet;
-								currentWords = newWords;
+								validity.setTable(newTable);
+								currentWordsCount = markInvalidWords(currentWords, validity);
+								// The new current words may come before the current one
+								currentExtractedWord = 0;
 							}
 						}
 					}
 					
-					alreadyConsultedWords.add(currentExtractedWord);
+					alreadyConsultedWords[examinedWord] = true;
 				
 				}
 				
-				currentWords.remove(currentExtractedWord);
+				if(currentWords[examinedWord]) {
+					currentWords[examinedWord] = false;
+					currentWordsCount--;
+				}
 			}
 		}
 		return alphabet;
 	}
 
+	/**
+	 * Performs a dictionary-based analysis of the cryptogram, scoring several candidate alphabets at a time on a fork-join pool.
+	 * At each round, each of the next invalid cipher words gives a candidate alphabet for each of its first compatible dictionary words. All the candidates are scored at the same time,
+	 * and the one leaving the fewest invalid words replaces the current alphabet if it leaves fewer of them. The first candidate generated wins the ties, so that the result does not depend on the number of threads.
+	 * @param alphabet The decoding alphabet from which the analysis starts
+	 * @param pool The pool scoring the candidate alphabets
+	 * @return The decoding alphabet at the end of the analysis process
+	 */
+	public String guessApproximatedAlphabet(String alphabet, ForkJoinPool pool) {
+		if(pool == null) {
+			throw new NullPointerException("Please provide a non null pool");
+		}
+		alphabet = alphabet.toUpperCase();
+		if(!isCorrectAlphabet(alphabet)) {
+			throw new IllegalArgumentException("Please provide correct text and correct alphabet");
+		}
+		patternIndex = PatternIndex.of(dictionnary);
+		iterationCount = 0;
+		CipherWords words = getCipherWords();
+		
+		WordValidity validity = createValidity(words, SubstitutionEngine.toTable(alphabet));
+		boolean[] alreadyConsultedWords = new boolean[words.size()];
+		Set<String> alphabetConsulted = new HashSet<>();
+		int[] roundWords = new int[WORDS_PER_ROUND];
+		
+		while(true) {
+			// The next invalid words, longest words first
+			int roundWordsCount = 0;
+			for(int i = 0; i < words.size() && roundWordsCount < WORDS_PER_ROUND; i++) {
+				if(!validity.isValid(i) && !alreadyConsultedWords[i]) {
+					roundWords[roundWordsCount++] = i;
+					alreadyConsultedWords[i] = true;
+				}
+			}
+			if(roundWordsCount == 0) {
+				return alphabet;
+			}
+			
+			int[] candidateWords = new int[roundWordsCount * CANDIDATES_PER_WORD];
+			int[] compatibleWords = new int[candidateWords.length];
+			int candidateCount = 0;
+			for(int i = 0; i < roundWordsCount; i++) {
+				int[] compatibleWordIds = patternIndex.getCompatibleWordIds(words.getPattern(roundWords[i]), words.getPatternKey(roundWords[i]));
+				for(int j = 0; j < Math.min(CANDIDATES_PER_WORD, compatibleWordIds.length); j++) {
+					candidateWords[candidateCount] = roundWords[i];
+					compatibleWords[candidateCount++] = compatibleWordIds[j];
+				}
+			}
+			
+			CandidateScoring scoring = new CandidateScoring(alphabet, validity, alphabetConsulted, candidateWords, compatibleWords, candidateCount);
+			pool.invoke(scoring);
+			
+			int best = -1;
+			int bestScore = validity.getInvalidCount();
+			for(int i = 0; i < candidateCount; i++) {
+				if(scoring.scores[i] != Integer.MAX_VALUE) {
+					iterationCount++;
+				}
+				if(scoring.scores[i] < bestScore) {
+					best = i;
+					bestScore = scoring.scores[i];
+				}
+				alphabetConsulted.add(scoring.candidates[i]);
+			}
+			if(best >= 0) {
+				alphabet = scoring.candidates[best];
+				validity.setTable(SubstitutionEngine.toTable(alphabet));
+			}
+		}
+	}
+
+	/**
+	 * Performs a beam search analysis of the cryptogram : instead of following the first compatible word of each cipher word, the analysis keeps several alphabets.
+	 * Each cipher word still invalid under one of them gives a candidate alphabet for each of its most likely compatible words, and only the alphabets leaving the fewest invalid words are kept.
+	 * The cipher words are studied once, longest first, then the best alphabet is improved by swapping its letters.
+	 * @param alphabet The decoding alphabet from which the analysis starts
+	 * @param beamWidth The number of alphabets kept at each step
+	 * @param candidatesPerWord The number of compatible words tried for a cipher word under each alphabet
+	 * @param timeBudget The maximum duration of the analysis in milliseconds, after which the best alphabet found so far is returned
+	 * @return The decoding alphabet leaving the fewest invalid words
+	 */
+	public String guessAlphabetByBeamSearch(String alphabet, int beamWidth, int candidatesPerWord, long timeBudget) {
+		if(beamWidth < 1 || candidatesPerWord < 1 || timeBudget < 0) {
+			throw new IllegalArgumentException("Please provide a positive beam width, number of candidates and time budget");
+		}
+		alphabet = alphabet.toUpperCase();
+		if(!isCorrectAlphabet(alphabet)) {
+			throw new IllegalArgumentException("Please provide correct text and correct alphabet");
+		}
+		patternIndex = PatternIndex.of(dictionnary);
+		iterationCount = 0;
+		CipherWords words = getCipherWords();
+		long deadline = System.nanoTime() + Math.min(timeBudget, Long.MAX_VALUE / 2_000_000) * 1_000_000;
+		
+		byte[] table = SubstitutionEngine.toTable(alphabet);
+		List<BeamState> beam = List.of(new BeamState(alphabet, table, createValidity(words, table)));
+		for(int word = 0; word < words.size() && System.nanoTime() < deadline; word++) {
+			// Only the words still invalid under the best alphabet are worth a step
+			if(!beam.get(0).validity.isValid(word)) {
+				beam = extendBeam(beam, word, beamWidth, candidatesPerWord);
+			}
+		}
+		return refineBySwaps(beam.get(0), deadline);
+	}
+
+	/**
+	 * Guesses a starting alphabet from the frequencies of the letters of the cryptogram : the letters found next to each other tell the vowels from the consonants,
+	 * then the cipher letters get the French letters of their kind, the most frequent first. Starting from it instead of the letters in order spares many iterations of the analysis.
+	 * @return A decoding alphabet from which to start the analysis
+	 */
+	public String guessStartAlphabet() {
+		return LetterStatistics.frequencyAlphabet(SubstitutionEngine.encode(cryptogram));
+	}
+
+	/**
+	 * Get the number of iterations of the last analysis
+	 * @return The number of candidate alphabets scored by the last analysis
+	 */
+	public int getIterationCount() {
+		return iterationCount;
+	}
+
+	/**
+	 * Get the number of decoded words found in the validity cache since the analysis was created
+	 * @return The number of hits, 0 without a cache
+	 */
+	public long getCacheHitCount() {
+		return validityCache == null ? 0 : validityCache.getHitCount();
+	}
+
+	/**
+	 * Get the number of decoded words which had to be looked up in the dictionary because they were not in the validity cache
+	 * @return The number of misses, 0 without a cache
+	 */
+	public long getCacheMissCount() {
+		return validityCache == null ? 0 : validityCache.getMissCount();
+	}
+
+	/**
+	 * Get the share of the decoded words answered by the validity cache
+	 * @return The hit rate, between 0 and 1 (0 without a cache)
+	 */
+	public double getCacheHitRate() {
+		return validityCache == null ? 0 : validityCache.getHitRate();
+	}
+
 	/**
 	 * Applies an alphabet-specified substitution to a text.
 	 * @param text A text
@@ -129,21 +318,7 @@ public class DictionaryBasedAnalysis {
 			throw new IllegalArgumentException("Please provide correct text and correct alphabet");
 		}
 		
-		StringBuilder substituedWord = new StringBuilder("");
-		text = text.toUpperCase();
-		alphabet = alphabet.toUpperCase();
-		
-		for(int i = 0; i < text.length(); i++) {
-			char currentChar = text.charAt(i);
-			int posLetterInAlphabet = LETTERS.indexOf(currentChar);
-			
-			if(posLetterInAlphabet != -1) {
-				substituedWord.append(alphabet.charAt(posLetterInAlphabet));
-			} else if(currentChar == '\n' || currentChar == ' ') {
-				substituedWord.append(currentChar);
-			}
-		}
-		return substituedWord.toString();
+		return new SubstitutionEngine(text).decode(SubstitutionEngine.toTable(alphabet));
 	}
 	
 	/*
@@ -181,83 +356,180 @@ public class DictionaryBasedAnalysis {
 	}
 
 	/**
-	 * Extracts all words (uninterrupted sequences of letters) from a text
-	 * @param text The text from which the words are extracted
-	 * @return A list of Strings containing the words extracted from the text
+	 * Makes one step of the beam search : the alphabets of the beam under which a cipher word is invalid give candidates for the compatible words of the cipher word
+	 * @param beam The alphabets kept, the best first
+	 * @param word The index of the cipher word
+	 * @param beamWidth The number of alphabets kept
+	 * @param candidatesPerWord The number of compatible words tried under each alphabet
+	 * @return The new alphabets kept, the best first
 	 */
-	private List<String> extractWords(String text) {	
-		String[] splittedText = text.split("\\s+");
-		List<String> words = new ArrayList<>();
+	private List<BeamState> extendBeam(List<BeamState> beam, int word, int beamWidth, int candidatesPerWord) {
+		int[] compatibleWords = patternIndex.getRankedCompatibleWordIds(cipherWords.getPattern(word), cipherWords.getPatternKey(word));
+		if(compatibleWords.length == 0) {
+			return beam;
+		}
 		
-		for(String word : splittedText) {
-			if(!words.contains(word) && word.length() > 2) {
-				words.add(word);
+		List<BeamState> candidates = new ArrayList<>(beam);
+		Set<String> alphabetConsulted = new HashSet<>();
+		for(var state : beam) {
+			alphabetConsulted.add(state.alphabet);
+		}
+		for(var state : beam) {
+			if(!state.validity.isValid(word)) {
+				String cipherWord = applySubstitution(cipherWords.getLetters(word), state.alphabet);
+				for(String compatibleWord : selectCompatibleWords(cipherWord, compatibleWords, candidatesPerWord)) {
+					String newAlphabet = updateAlphabet(state.alphabet, cipherWord, compatibleWord);
+					if(alphabetConsulted.add(newAlphabet)) {
+						byte[] newTable = SubstitutionEngine.toTable(newAlphabet);
+						iterationCount++;
+						candidates.add(new BeamState(newAlphabet, newTable, state, state.validity.countInvalidWords(newTable)));
+					}
+				}
 			}
 		}
-	    
-	    Collections.sort(words, new Comparator<String>() {
-            @Override
-            public int compare(String word1, String word2) {
-                return Integer.compare(word2.length(), word1.length());
-            }
-        });
-
-	    return words;
+		if(candidates.size() == beam.size()) {
+			return beam;
+		}
+		
+		// The sort is stable, so that the alphabets generated first win the ties
+		candidates.sort(Comparator.comparingInt(state -> state.score));
+		List<BeamState> newBeam = new ArrayList<>(candidates.subList(0, Math.min(beamWidth, candidates.size())));
+		for(var state : newBeam) {
+			state.updateValidity();
+		}
+		return newBeam;
 	}
 	
 	/**
-	 * Delete from a list of words all the words that are valid (present in the dictionary) after applying a substitution alphabet
-	 * @param words The list of words
-	 * @param alphabet The substitution alphabet
+	 * Improves the best alphabet of the beam by swapping two of its letters, as long as a swap leaves fewer invalid words :
+	 * this mends the rare letters, which the compatible words tried by the beam seldom contain
+	 * @param state The best alphabet of the beam
+	 * @param deadline The time at which the analysis must stop, from {@link System#nanoTime()}
+	 * @return The improved alphabet
 	 */
-	private void removeValidWords(List<String> words,String alphabet) {
-		words.removeIf(word -> dictionnary.containsWord(applySubstitution(word, alphabet).toLowerCase()));
+	private static String refineBySwaps(BeamState state, long deadline) {
+		byte[] table = state.table.clone();
+		WordValidity validity = state.validity;
+		boolean improved = true;
+		while(improved && System.nanoTime() < deadline) {
+			improved = false;
+			for(int a = 0; a < SubstitutionEngine.ALPHABET_SIZE; a++) {
+				for(int b = a + 1; b < SubstitutionEngine.ALPHABET_SIZE; b++) {
+					byte letter = table[a];
+					table[a] = table[b];
+					table[b] = letter;
+					if(validity.countInvalidWords(table) < validity.getInvalidCount()) {
+						validity.setTable(table);
+						improved = true;
+					} else {
+						table[b] = table[a];
+						table[a] = letter;
+					}
+				}
+			}
+		}
+		return SubstitutionEngine.toAlphabet(table);
 	}
 	
 	/**
-	 * Finds a word in the dictionary that is compatible with our cipher word
-	 * @param cryptogram The cipher word
-	 * @return A compatible word if any, otherwise an empty string
+	 * Selects the compatible words most likely to be the decoded cipher word : the words sharing the most letters with the cipher word decoded by the current alphabet,
+	 * among the most likely compatible words
+	 * @param cipherWord The cipher word decoded by the current alphabet
+	 * @param compatibleWords The identifiers of the compatible words, the most likely first
+	 * @param count The number of words selected
+	 * @return The selected words, in uppercase
 	 */
-	private String getCompatibleWord(String cryptogram) {
-		
-		int cryptogramLength = cryptogram.length();
-
-	    if (currentCompatibleWordsSize != cryptogramLength) {
-	        currentCompatibleWords = dictionnary.getWordsOfLength(cryptogramLength);
-	        currentCompatibleWordsSize = cryptogramLength;
-	    }
-
-	    var cryptoSeq = getWordSequence(cryptogram);
-
-		for(var currentWord : currentCompatibleWords) {
-			currentWord = currentWord.replaceAll("[^a-z]", "");
-			if(Arrays.equals(cryptoSeq,getWordSequence(currentWord))) {
-				return currentWord.toUpperCase();
+	private List<String> selectCompatibleWords(String cipherWord, int[] compatibleWords, int count) {
+		int consideredCount = Math.min(compatibleWords.length, Math.max(count, RANKED_WORDS_CONSIDERED));
+		String[] considered = new String[consideredCount];
+		long[] orders = new long[consideredCount];
+		for(int i = 0; i < consideredCount; i++) {
+			considered[i] = patternIndex.getDictionary().word(compatibleWords[i]).toUpperCase();
+			int sharedLetters = 0;
+			for(int j = 0; j < cipherWord.length() && j < considered[i].length(); j++) {
+				if(cipherWord.charAt(j) == considered[i].charAt(j)) {
+					sharedLetters++;
+				}
 			}
+			// More shared letters first, then the most likely words
+			orders[i] = (long) -sharedLetters << 32 | i;
 		}
+		Arrays.sort(orders);
 		
-		return "";
+		List<String> selected = new ArrayList<>(count);
+		for(int i = 0; i < Math.min(count, consideredCount); i++) {
+			selected.add(considered[(int) orders[i]]);
+		}
+		return selected;
+	}
+	
+	/**
+	 * Returns the words of the cryptogram, extracted on first call
+	 * @return The distinct words of more than two letters of the cryptogram
+	 */
+	private CipherWords getCipherWords() {
+		if(cipherWords == null) {
+			cipherWords = new CipherWords(cryptogram, MIN_WORD_LENGTH);
+		}
+		return cipherWords;
+	}
+	
+	/**
+	 * Checks the words of the cryptogram under a first alphabet, through the validity cache if the analysis has one
+	 * @param words The words of the cryptogram
+	 * @param table The substitution alphabet, as a table
+	 * @return The validity of the words
+	 */
+	private WordValidity createValidity(CipherWords words, byte[] table) {
+		CompactTree dict = patternIndex.getDictionary();
+		if(cacheCapacity == 0) {
+			return new WordValidity(words, dict, table);
+		}
+		// The cache is kept from one analysis to the next, as long as the dictionary does not change
+		if(validityCache == null || validityCache.getDictionary() != dict) {
+			validityCache = new ValidityCache(dict, cacheCapacity);
+		}
+		return new WordValidity(words, validityCache, table);
+	}
+	
+	/**
+	 * Flags the words of the cryptogram that are not valid (not present in the dictionary) under the current alphabet
+	 * @param invalidWords The array receiving true for each invalid word
+	 * @param validity The validity of the words under the current alphabet
+	 * @return The number of invalid words
+	 */
+	private static int markInvalidWords(boolean[] invalidWords, WordValidity validity) {
+		for(int i = 0; i < invalidWords.length; i++) {
+			invalidWords[i] = !validity.isValid(i);
+		}
+		return validity.getInvalidCount();
+	}
+	
+	/**
+	 * Applies an alphabet to the letters of a cipher word
+	 * @param letters The letter indexes of the cipher word
+	 * @param alphabet A substitution alphabet
+	 * @return The substituted word, in uppercase
+	 */
+	private static String applySubstitution(byte[] letters, String alphabet) {
+		char[] substitutedWord = new char[letters.length];
+		for(int i = 0; i < letters.length; i++) {
+			substitutedWord[i] = alphabet.charAt(letters[i]);
+		}
+		return new String(substitutedWord);
 	}
 	
 	/**
-	 * Provides the sequence of letters in a word (letter frequency and order of appearance)
-	 * @param word The word from which to extract the sequence of letters
-	 * @return An array containing the sequence of letters in the word
+	 * Finds a word in the dictionary that is compatible with our cipher word, using the pattern index of the dictionary
+	 * @param cipherWord The index of the cipher word
+	 * @return The first compatible word in alphabetical order if any, otherwise an empty string
 	 */
-	private Object[] getWordSequence(String word) {
-		  Map<Character,String> seqMap = new LinkedHashMap<Character,String>();
-		    
-		    for(int i = 0; i < word.length(); i++) {
-		        char currentCharacter = word.charAt(i);
-		        if(seqMap.containsKey(currentCharacter)) {
-		            String currentValue = seqMap.get(currentCharacter);
-		            seqMap.put(currentCharacter,String.format("%s%d",currentValue,i));
-		        } else {
-		        	seqMap.put(currentCharacter,String.format("%d",i));
-		        }
-		    }
-		    return seqMap.values().toArray();
+	private String getCompatibleWord(int cipherWord) {
+		int[] compatibleWords = patternIndex.getCompatibleWordIds(cipherWords.getPattern(cipherWord), cipherWords.getPatternKey(cipherWord));
+		if(compatibleWords.length == 0) {
+			return "";
+		}
+		return patternIndex.getDictionary().word(compatibleWords[0]).toUpperCase();
 	}
 	
 	/**
@@ -344,6 +616,128 @@ public class DictionaryBasedAnalysis {
 		return true;
 	}
 	 
+	/**
+	 * This class holds an alphabet of the beam search and the validity of the words under it.
+	 * The validity of a candidate is only built if the candidate is kept in the beam.
+	 */
+	private static final class BeamState {
+		private final String alphabet;
+		private final byte[] table;
+		private final int score;
+		private WordValidity validity;
+		private WordValidity parentValidity;
+		
+		/**
+		 * This constructor creates a state whose validity is known
+		 * @param alphabet The alphabet
+		 * @param table The alphabet, as a table
+		 * @param validity The validity of the words under the alphabet
+		 */
+		private BeamState(String alphabet, byte[] table, WordValidity validity) {
+			this.alphabet = alphabet;
+			this.table = table;
+			this.validity = validity;
+			this.score = validity.getInvalidCount();
+		}
+		
+		/**
+		 * This constructor creates a candidate derived from a state
+		 * @param alphabet The alphabet of the candidate
+		 * @param table The alphabet, as a table
+		 * @param parent The state from which the candidate is derived
+		 * @param score The number of invalid words under the alphabet
+		 */
+		private BeamState(String alphabet, byte[] table, BeamState parent, int score) {
+			this.alphabet = alphabet;
+			this.table = table;
+			this.parentValidity = parent.validity;
+			this.score = score;
+		}
+		
+		/**
+		 * Builds the validity of the words of a candidate kept in the beam, from the validity of its parent
+		 */
+		private void updateValidity() {
+			if(validity == null) {
+				validity = new WordValidity(parentValidity);
+				validity.setTable(table);
+				parentValidity = null;
+			}
+		}
+	}
+	
+	/**
+	 * This class builds and scores candidate alphabets, splitting them between the threads of a fork-join pool.
+	 * Each candidate has its own slot in the results, so the results do not depend on the order in which the threads run.
+	 */
+	private final class CandidateScoring extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int CANDIDATES_PER_TASK = 2;
+		
+		private final String alphabet;
+		private final WordValidity validity;
+		private final Set<String> alphabetConsulted;
+		private final int[] candidateWords;
+		private final int[] compatibleWords;
+		private final String[] candidates;
+		private final int[] scores;
+		private final int start;
+		private final int end;
+		
+		/**
+		 * This constructor prepares the scoring of all the candidates of a round
+		 * @param alphabet The current alphabet
+		 * @param validity The validity of the words under the current alphabet
+		 * @param alphabetConsulted The alphabets already scored, which are not scored again
+		 * @param candidateWords The cipher word of each candidate
+		 * @param compatibleWords The identifier of the dictionary word of each candidate
+		 * @param candidateCount The number of candidates
+		 */
+		private CandidateScoring(String alphabet, WordValidity validity, Set<String> alphabetConsulted, int[] candidateWords, int[] compatibleWords, int candidateCount) {
+			this(alphabet, validity, alphabetConsulted, candidateWords, compatibleWords, new String[candidateCount], new int[candidateCount], 0, candidateCount);
+		}
+		
+		/**
+		 * This constructor prepares the scoring of a range of candidates
+		 * @param alphabet The current alphabet
+		 * @param validity The validity of the words under the current alphabet
+		 * @param alphabetConsulted The alphabets already scored
+		 * @param candidateWords The cipher word of each candidate
+		 * @param compatibleWords The identifier of the dictionary word of each candidate
+		 * @param candidates The array receiving the alphabet of each candidate
+		 * @param scores The array receiving the number of invalid words of each candidate
+		 * @param start The first candidate of the range
+		 * @param end The candidate after the range
+		 */
+		private CandidateScoring(String alphabet, WordValidity validity, Set<String> alphabetConsulted, int[] candidateWords, int[] compatibleWords, String[] candidates, int[] scores, int start, int end) {
+			this.alphabet = alphabet;
+			this.validity = validity;
+			this.alphabetConsulted = alphabetConsulted;
+			this.candidateWords = candidateWords;
+			this.compatibleWords = compatibleWords;
+			this.candidates = candidates;
+			this.scores = scores;
+			this.start = start;
+			this.end = end;
+		}
+		
+		@Override
+		protected void compute() {
+			if(end - start > CANDIDATES_PER_TASK) {
+				int middle = (start + end) >>> 1;
+				invokeAll(new CandidateScoring(alphabet, validity, alphabetConsulted, candidateWords, compatibleWords, candidates, scores, start, middle),
+						new CandidateScoring(alphabet, validity, alphabetConsulted, candidateWords, compatibleWords, candidates, scores, middle, end));
+				return;
+			}
+			
+			for(int i = start; i < end; i++) {
+				String compatibleWord = patternIndex.getDictionary().word(compatibleWords[i]).toUpperCase();
+				candidates[i] = updateAlphabet(alphabet, applySubstitution(cipherWords.getLetters(candidateWords[i]), alphabet), compatibleWord);
+				scores[i] = alphabetConsulted.contains(candidates[i]) ? Integer.MAX_VALUE : validity.countInvalidWords(SubstitutionEngine.toTable(candidates[i]));
+			}
+		}
+	}
+	 
     /*
 	 * MAIN PROGRAM
 	 */
@@ -372,13 +766,46 @@ public class DictionaryBasedAnalysis {
 //		String startAlphabet = "ZISHNFOBMAVQLPEUGWXTDYRJKC"; // Random alphabet
 		long startTime = System.currentTimeMillis();
 		String finalAlphabet = dba.guessApproximatedAlphabet(startAlphabet);
-		System.out.println("Analysis duration : " + (System.currentTimeMillis() - startTime) / 1000.0);
+		System.out.println("Analysis duration : " + (System.currentTimeMillis() - startTime) / 1000.0 + " (" + dba.getIterationCount() + " iterations)");
+		
+		// Same analysis, starting from the alphabet given by the letter frequencies
+		startTime = System.currentTimeMillis();
+		String frequencyAlphabet = dba.guessStartAlphabet();
+		String seededAlphabet = dba.guessApproximatedAlphabet(frequencyAlphabet);
+		System.out.println("Analysis duration from the letter frequencies : " + (System.currentTimeMillis() - startTime) / 1000.0 + " (" + dba.getIterationCount() + " iterations)");
+		
+		// Same analysis twice, the validity of the decoded words being kept in a cache from one alphabet and one analysis to the next
+		DictionaryBasedAnalysis cachedDba = new DictionaryBasedAnalysis(cryptogram, dict, VALIDITY_CACHE_CAPACITY);
+		for(int run = 1; run <= 2; run++) {
+			startTime = System.currentTimeMillis();
+			cachedDba.guessApproximatedAlphabet(startAlphabet);
+			System.out.println("Analysis duration with a validity cache, run " + run + " : " + (System.currentTimeMillis() - startTime) / 1000.0
+					+ " (hit rate " + Math.round(cachedDba.getCacheHitRate() * 100) + " %)");
+		}
+		
+		// Same analysis, scoring several candidates at a time on all the processors
+		startTime = System.currentTimeMillis();
+		String parallelAlphabet = new DictionaryBasedAnalysis(cryptogram, dict).guessApproximatedAlphabet(startAlphabet, ForkJoinPool.commonPool());
+		System.out.println("Parallel analysis duration : " + (System.currentTimeMillis() - startTime) / 1000.0 + " (" + ForkJoinPool.commonPool().getParallelism() + " threads)");
+		
+		// Beam search, keeping several alphabets instead of following the first compatible word
+		startTime = System.currentTimeMillis();
+		String beamAlphabet = new DictionaryBasedAnalysis(cryptogram, dict).guessAlphabetByBeamSearch(startAlphabet, BEAM_WIDTH, BEAM_CANDIDATES_PER_WORD, 10_000);
+		System.out.println("Beam search duration : " + (System.currentTimeMillis() - startTime) / 1000.0);
 		
 		// Display final results
 		System.out.println();
 		System.out.println("Decoding     alphabet : " + DECODING_ALPHABET);
 		System.out.println("Approximated alphabet : " + finalAlphabet);
 		System.out.println("Remaining differences : " + compareAlphabets(DECODING_ALPHABET, finalAlphabet));
+		System.out.println("Frequency    alphabet : " + frequencyAlphabet);
+		System.out.println("Remaining differences : " + compareAlphabets(DECODING_ALPHABET, frequencyAlphabet));
+		System.out.println("Seeded       alphabet : " + seededAlphabet);
+		System.out.println("Remaining differences : " + compareAlphabets(DECODING_ALPHABET, seededAlphabet));
+		System.out.println("Parallel     alphabet : " + parallelAlphabet);
+		System.out.println("Remaining differences : " + compareAlphabets(DECODING_ALPHABET, parallelAlphabet));
+		System.out.println("Beam search  alphabet : " + beamAlphabet);
+		System.out.println("Remaining differences : " + compareAlphabets(DECODING_ALPHABET, beamAlphabet));
 		System.out.println();
 		
 		// Display decoded text
@@ -0,0 +1,120 @@
+package cryptanalysis;
+
+import java.util.Arrays;
+
+/**
+ * This class holds statistics on the letters of French texts, used to tell likely words and alphabets from unlikely ones.
+ * @author Maxime Cao
+ *
+ */
+final class LetterStatistics {
+	/**
+	 * The frequency of each letter in French texts without accents, in percent, from 'A' to 'Z'
+	 */
+	static final double[] FRENCH_FREQUENCIES = {8.15, 0.97, 3.15, 3.73, 17.39, 1.12, 0.97, 0.85, 7.31, 0.45, 0.02, 5.69, 2.87,
+			7.12, 5.28, 3.03, 0.99, 6.55, 8.08, 7.07, 5.74, 1.32, 0.04, 0.45, 0.30, 0.12};
+
+	private static final int[] LETTER_COSTS = new int[FRENCH_FREQUENCIES.length];
+	private static final int VOWELS = 1 << 0 | 1 << 4 | 1 << 8 | 1 << 14 | 1 << 20 | 1 << 24; // A, E, I, O, U and Y
+
+	static {
+		// The cost of a letter is minus the logarithm of its probability, in thousandths
+		for(int letter = 0; letter < LETTER_COSTS.length; letter++) {
+			LETTER_COSTS[letter] = (int) Math.round(-1000 * Math.log(FRENCH_FREQUENCIES[letter] / 100));
+		}
+	}
+
+	/**
+	 * This class only has static members
+	 */
+	private LetterStatistics() {
+	}
+
+	/**
+	 * Estimates how unlikely a word is from the frequencies of its letters, for want of word frequencies
+	 * @param letters The letter indexes of the word (0 for 'A')
+	 * @param length The length of the word
+	 * @return Minus the logarithm of the probability of the letters of the word, in thousandths : the lower, the more likely
+	 */
+	static int wordCost(byte[] letters, int length) {
+		int cost = 0;
+		for(int i = 0; i < length; i++) {
+			cost += LETTER_COSTS[letters[i]];
+		}
+		return cost;
+	}
+
+	/**
+	 * Guesses a decoding alphabet from the frequencies of the letters of a cryptogram, in a single pass over its codes.
+	 * The letters next to each other tell the vowels from the consonants (Sukhotin's algorithm : vowels and consonants tend to alternate),
+	 * then the cipher vowels get the French vowels and the cipher consonants the French consonants, the most frequent letters first.
+	 * @param codes The codes of the cryptogram (see SubstitutionEngine)
+	 * @return The decoding alphabet, in uppercase
+	 */
+	static String frequencyAlphabet(byte[] codes) {
+		int size = SubstitutionEngine.ALPHABET_SIZE;
+		int[] counts = new int[size];
+		int[] adjacencies = new int[size * size];
+		int previous = SubstitutionEngine.SPACE;
+		for(byte code : codes) {
+			if(code < size) {
+				counts[code]++;
+				// Only the letters of the same word are next to each other, and a doubled letter says nothing
+				if(previous < size && previous != code) {
+					adjacencies[previous * size + code]++;
+					adjacencies[code * size + previous]++;
+				}
+			}
+			previous = code;
+		}
+
+		// The letter most often next to the consonants becomes a vowel, as long as some letter is more often next to the consonants than to the vowels
+		long[] consonantAdjacencies = new long[size];
+		for(int a = 0; a < size; a++) {
+			for(int b = 0; b < size; b++) {
+				consonantAdjacencies[a] += adjacencies[a * size + b];
+			}
+		}
+		int cipherVowels = 0;
+		while(true) {
+			int vowel = -1;
+			for(int letter = 0; letter < size; letter++) {
+				if((cipherVowels & (1 << letter)) == 0 && consonantAdjacencies[letter] > 0 && (vowel < 0 || consonantAdjacencies[letter] > consonantAdjacencies[vowel])) {
+					vowel = letter;
+				}
+			}
+			if(vowel < 0) {
+				break;
+			}
+			cipherVowels |= 1 << vowel;
+			for(int letter = 0; letter < size; letter++) {
+				consonantAdjacencies[letter] -= 2L * adjacencies[letter * size + vowel];
+			}
+		}
+
+		// The most frequent cipher letters first, each getting the most frequent French letter left of its kind (or of the other kind when none is left)
+		Integer[] cipherLetters = new Integer[size];
+		for(int letter = 0; letter < size; letter++) {
+			cipherLetters[letter] = letter;
+		}
+		Arrays.sort(cipherLetters, (a, b) -> counts[b] - counts[a]);
+		byte[] table = new byte[size];
+		int usedLetters = 0;
+		for(int cipherLetter : cipherLetters) {
+			int wantedLetters = (cipherVowels & (1 << cipherLetter)) != 0 ? VOWELS : ~VOWELS;
+			if((~usedLetters & wantedLetters & ((1 << size) - 1)) == 0) {
+				wantedLetters = ~wantedLetters;
+			}
+			int plainLetter = -1;
+			for(int letter = 0; letter < size; letter++) {
+				if((usedLetters & (1 << letter)) == 0 && (wantedLetters & (1 << letter)) != 0
+						&& (plainLetter < 0 || FRENCH_FREQUENCIES[letter] > FRENCH_FREQUENCIES[plainLetter])) {
+					plainLetter = letter;
+				}
+			}
+			table[cipherLetter] = (byte) plainLetter;
+			usedLetters |= 1 << plainLetter;
+		}
+		return SubstitutionEngine.toAlphabet(table);
+	}
+}
@@ -0,0 +1,320 @@
+package cryptanalysis;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class groups the words of a dictionary by letter pattern : "elle" and "otto" share the pattern ABBA, since they repeat their letters at the same positions.
+ * A substitution keeps the pattern of a word, so the words compatible with a cipher word are found with one lookup of its pattern, instead of a scan of all the words of the same length.
+ * Only the words made of the letters a to z are indexed. Within a pattern, the words are kept in alphabetical order.
+ * @author Maxime Cao
+ *
+ */
+public class PatternIndex {
+	// Patterns of up to 12 letters are stored exactly : 5 bits per position and the length in the 4 highest bits
+	private static final int BITS_PER_POSITION = 5;
+	private static final int MAX_EXACT_LENGTH = 12;
+	private static final int LENGTH_SHIFT = 60;
+	private static final long PATTERN_MASK = (1L << LENGTH_SHIFT) - 1;
+	private static final int[] NO_WORDS = new int[0];
+
+	private final CompactTree dictionnary;
+	private final Map<Long, int[]> wordsByPattern;
+	private final Map<Long, int[]> rankedWordsByPattern = new ConcurrentHashMap<>();
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : indexes all the words of a dictionary
+	 * @param dict A dictionary
+	 */
+	private PatternIndex(CompactTree dict) {
+		dictionnary = dict;
+		int wordCount = dict.wordCount();
+		long[] keys = new long[wordCount];
+		byte[] letters = new byte[dict.height(CompactTree.ROOT)];
+		int[] ranks = new int[letters.length];
+
+		// The words of each pattern are counted, then stored in increasing order of identifier, which is the alphabetical order
+		Map<Long, int[]> counts = new HashMap<>();
+		for(int wordId = 0; wordId < wordCount; wordId++) {
+			int length = readWord(wordId, letters);
+			keys[wordId] = patternKey(letters, length, ranks);
+			counts.computeIfAbsent(keys[wordId], key -> new int[1])[0]++;
+		}
+
+		wordsByPattern = new HashMap<>(counts.size() * 2);
+		for(var count : counts.entrySet()) {
+			wordsByPattern.put(count.getKey(), new int[count.getValue()[0]]);
+			count.getValue()[0] = 0;
+		}
+		for(int wordId = 0; wordId < wordCount; wordId++) {
+			int[] position = counts.get(keys[wordId]);
+			wordsByPattern.get(keys[wordId])[position[0]++] = wordId;
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Returns the index of a dictionary, built on first call and shared until the dictionary changes
+	 * @param dict A dictionary
+	 * @return The pattern index of the dictionary
+	 */
+	public static PatternIndex of(LexicographicTree dict) {
+		if(dict == null) {
+			throw new NullPointerException("Please provide non null dictionnary");
+		}
+
+		// The index is kept by the compact tree itself, so that it goes away with the tree instead of keeping it alive
+		return dict.getCompactTree().getDerivedStructure(PatternIndex.class, PatternIndex::new);
+	}
+
+	/**
+	 * Returns the dictionary words having the same letter pattern as a cipher word
+	 * @param cipherWord A cipher word
+	 * @return The compatible words in lowercase, in alphabetical order
+	 */
+	public List<String> getCompatibleWords(CharSequence cipherWord) {
+		int[] wordIds = getCompatibleWordIds(cipherWord);
+		List<String> words = new ArrayList<>(wordIds.length);
+		for(int wordId : wordIds) {
+			words.add(dictionnary.word(wordId));
+		}
+		return Collections.unmodifiableList(words);
+	}
+
+	/**
+	 * Returns the number of dictionary words having the same letter pattern as a cipher word
+	 * @param cipherWord A cipher word
+	 * @return The number of compatible words
+	 */
+	public int countCompatibleWords(CharSequence cipherWord) {
+		return getCompatibleWordIds(cipherWord).length;
+	}
+
+	/**
+	 * Returns the pattern key of a word : two words have the same key if and only if they repeat their symbols at the same positions.
+	 * Keys of words longer than 12 symbols are hashed, so they may also be shared by a few other patterns.
+	 * @param word A word
+	 * @return The pattern key of the word
+	 */
+	public static long patternKey(CharSequence word) {
+		return patternKey(pattern(word));
+	}
+
+	/**
+	 * Returns the identifiers of the dictionary words having the same letter pattern as a cipher word.
+	 * The returned array is shared and must not be modified.
+	 * @param cipherWord A cipher word
+	 * @return The identifiers of the compatible words, in increasing order
+	 */
+	int[] getCompatibleWordIds(CharSequence cipherWord) {
+		int[] pattern = pattern(cipherWord);
+		return getCompatibleWordIds(pattern, patternKey(pattern));
+	}
+
+	/**
+	 * Returns the identifiers of the dictionary words having a letter pattern.
+	 * The returned array is shared and must not be modified.
+	 * @param pattern The pattern (see pattern)
+	 * @param key The key of the pattern (see patternKey)
+	 * @return The identifiers of the compatible words, in increasing order
+	 */
+	int[] getCompatibleWordIds(int[] pattern, long key) {
+		int length = pattern.length;
+		int[] wordIds = wordsByPattern.getOrDefault(key, NO_WORDS);
+		if(length <= MAX_EXACT_LENGTH || wordIds.length == 0) {
+			return wordIds;
+		}
+
+		// Hashed keys may be shared by other patterns : the words are checked one by one
+		byte[] letters = new byte[dictionnary.height(CompactTree.ROOT)];
+		int[] wordRanks = new int[letters.length];
+		int[] matching = new int[wordIds.length];
+		int matchingCount = 0;
+		for(int wordId : wordIds) {
+			if(readWord(wordId, letters) == length) {
+				computeRanks(letters, length, wordRanks);
+				if(Arrays.equals(pattern, 0, length, wordRanks, 0, length)) {
+					matching[matchingCount++] = wordId;
+				}
+			}
+		}
+		return matchingCount == wordIds.length ? wordIds : Arrays.copyOf(matching, matchingCount);
+	}
+
+	/**
+	 * Returns the identifiers of the dictionary words having a letter pattern, the most likely words first.
+	 * For want of word frequencies, a word is as likely as its letters are frequent in French; words as likely keep the alphabetical order.
+	 * The ranking of each pattern is computed on first call. The returned array is shared and must not be modified.
+	 * @param pattern The pattern (see pattern)
+	 * @param key The key of the pattern (see patternKey)
+	 * @return The identifiers of the compatible words, most likely first
+	 */
+	int[] getRankedCompatibleWordIds(int[] pattern, long key) {
+		if(pattern.length > MAX_EXACT_LENGTH) {
+			return rankWords(getCompatibleWordIds(pattern, key));
+		}
+		int[] rankedWordIds = rankedWordsByPattern.get(key);
+		if(rankedWordIds == null) {
+			rankedWordIds = rankWords(getCompatibleWordIds(pattern, key));
+			rankedWordsByPattern.putIfAbsent(key, rankedWordIds);
+		}
+		return rankedWordIds;
+	}
+
+	/**
+	 * Returns the pattern of a word : each position gets the rank of first appearance of its symbol (0 for the first symbol, 1 for the next new one, etc.)
+	 * @param word A word
+	 * @return The rank of each position
+	 */
+	static int[] pattern(CharSequence word) {
+		int[] ranks = new int[word.length()];
+		int distinctCount = 0;
+		for(int i = 0; i < word.length(); i++) {
+			char currentCharacter = word.charAt(i);
+			int j = 0;
+			while(j < i && word.charAt(j) != currentCharacter) {
+				j++;
+			}
+			ranks[i] = j < i ? ranks[j] : distinctCount++;
+		}
+		return ranks;
+	}
+
+	/**
+	 * Returns the pattern of the letters of a word
+	 * @param letters The letter indexes of the word (0 for 'a')
+	 * @return The rank of each position
+	 */
+	static int[] pattern(byte[] letters) {
+		int[] ranks = new int[letters.length];
+		computeRanks(letters, letters.length, ranks);
+		return ranks;
+	}
+
+	/**
+	 * Returns the key of a pattern
+	 * @param pattern The rank of each position
+	 * @return The pattern key
+	 */
+	static long patternKey(int[] pattern) {
+		return encode(pattern, pattern.length);
+	}
+
+	/**
+	 * Copies the letters of a word into a buffer
+	 * @param wordId A word identifier
+	 * @param letters The buffer receiving the letter indexes (0 for 'a')
+	 * @return The length of the word
+	 */
+	int readWord(int wordId, byte[] letters) {
+		int node = dictionnary.wordNode(wordId);
+		int length = dictionnary.depth(node);
+		for(int i = length - 1; i >= 0; i--) {
+			letters[i] = (byte) dictionnary.letter(node);
+			node = dictionnary.parent(node);
+		}
+		return length;
+	}
+
+	/**
+	 * Returns the dictionary used by the index
+	 * @return The compacted dictionary
+	 */
+	CompactTree getDictionary() {
+		return dictionnary;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Sorts words from the most likely to the least likely
+	 * @param wordIds Word identifiers, in increasing order
+	 * @return The identifiers sorted by increasing cost, then by increasing identifier
+	 */
+	private int[] rankWords(int[] wordIds) {
+		byte[] letters = new byte[dictionnary.height(CompactTree.ROOT)];
+		long[] costs = new long[wordIds.length];
+		for(int i = 0; i < wordIds.length; i++) {
+			int length = readWord(wordIds[i], letters);
+			costs[i] = (long) LetterStatistics.wordCost(letters, length) << 32 | wordIds[i];
+		}
+		Arrays.sort(costs);
+		int[] rankedWordIds = new int[wordIds.length];
+		for(int i = 0; i < rankedWordIds.length; i++) {
+			rankedWordIds[i] = (int) costs[i];
+		}
+		return rankedWordIds;
+	}
+
+	/**
+	 * Computes the pattern key of a dictionary word
+	 * @param letters The letter indexes of the word
+	 * @param length The length of the word
+	 * @param ranks A buffer receiving the rank of each position
+	 * @return The pattern key of the word
+	 */
+	private static long patternKey(byte[] letters, int length, int[] ranks) {
+		computeRanks(letters, length, ranks);
+		return encode(ranks, length);
+	}
+
+	/**
+	 * Gives each position of a dictionary word the rank of first appearance of its letter
+	 * @param letters The letter indexes of the word
+	 * @param length The length of the word
+	 * @param ranks The buffer receiving the rank of each position
+	 */
+	private static void computeRanks(byte[] letters, int length, int[] ranks) {
+		int seenLetters = 0;
+		int[] letterRanks = new int[CompactTree.ALPHABET_SIZE];
+		int distinctCount = 0;
+		for(int i = 0; i < length; i++) {
+			int letter = letters[i];
+			if((seenLetters & (1 << letter)) == 0) {
+				seenLetters |= 1 << letter;
+				letterRanks[letter] = distinctCount++;
+			}
+			ranks[i] = letterRanks[letter];
+		}
+	}
+
+	/**
+	 * Packs the ranks of a word into a key
+	 * @param ranks The rank of each position
+	 * @param length The length of the word
+	 * @return The pattern key
+	 */
+	private static long encode(int[] ranks, int length) {
+		if(length <= MAX_EXACT_LENGTH) {
+			long key = (long) length << LENGTH_SHIFT;
+			for(int i = 0; i < length; i++) {
+				key |= (long) ranks[i] << (i * BITS_PER_POSITION);
+			}
+			return key;
+		}
+
+		// Longer patterns are hashed, with a length field of 0 so that they never meet an exact key
+		long hash = length;
+		for(int i = 0; i < length; i++) {
+			hash = (hash * 0x9E3779B97F4A7C15L) ^ ranks[i];
+		}
+		return hash & PATTERN_MASK;
+	}
+}
@@ -0,0 +1,324 @@
+package cryptanalysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import tree.LexicographicTree;
+
+/**
+ * This class decrypts a text by hill climbing on the quadgram score of its decoding : two letters of the alphabet are swapped as long as the decoded text looks more like the corpus.
+ * The cipher text is reduced to its distinct quadgrams, each with its number of occurrences and the list of quadgrams containing each letter :
+ * a swap only changes the quadgrams containing one of the two letters, so its score is updated from them instead of decoding the whole text again.
+ * A climb stops on the first alphabet which no swap improves ; several climbs from random alphabets, run in parallel, give the best of these local maximums.
+ * @author Maxime Cao
+ *
+ */
+public final class QuadgramAnalysis {
+	private static final String DICTIONARY = "mots/dictionnaire_FR_sans_accents.txt";
+	private static final String CORPUS_FILE = "txt/Plus fort que Sherlock Holmes.txt";
+	private static final String CRYPTOGRAM_FILE = "txt/Plus fort que Sherlock Holmes (cryptogram).txt";
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	// Below this gain, a swap is a rounding error and not an improvement
+	private static final double MIN_GAIN = 1e-6;
+
+	private final QuadgramStatistics statistics;
+	private final byte[] cipherLetters;
+	// The distinct quadgrams of the cipher text : their four letters, their number of occurrences and the mask of their letters
+	private final byte[] quadgramLetters;
+	private final int[] quadgramCounts;
+	private final int[] quadgramMasks;
+	private final int[][] quadgramsWithLetter;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : reduces a cryptogram to its distinct quadgrams
+	 * @param cryptogram The cryptogram (ciphertext)
+	 * @param statistics The quadgram statistics of the language of the plain text
+	 */
+	public QuadgramAnalysis(String cryptogram, QuadgramStatistics statistics) {
+		if(statistics == null || cryptogram == null || cryptogram.isEmpty()) {
+			throw new IllegalArgumentException("Please provide correct cryptogram and statistics");
+		}
+
+		this.statistics = statistics;
+		cipherLetters = QuadgramStatistics.encodeLetters(cryptogram);
+
+		Map<Integer, Integer> indexes = new HashMap<>();
+		int[] distinctQuadgrams = new int[Math.max(cipherLetters.length - 3, 0)];
+		int[] counts = new int[distinctQuadgrams.length];
+		for(int i = 3; i < cipherLetters.length; i++) {
+			int quadgram = ((cipherLetters[i - 3] * SubstitutionEngine.ALPHABET_SIZE + cipherLetters[i - 2]) * SubstitutionEngine.ALPHABET_SIZE + cipherLetters[i - 1])
+					* SubstitutionEngine.ALPHABET_SIZE + cipherLetters[i];
+			int index = indexes.computeIfAbsent(quadgram, key -> indexes.size());
+			distinctQuadgrams[index] = quadgram;
+			counts[index]++;
+		}
+
+		int distinctCount = indexes.size();
+		quadgramLetters = new byte[distinctCount * 4];
+		quadgramCounts = new int[distinctCount];
+		quadgramMasks = new int[distinctCount];
+		int[] letterCounts = new int[SubstitutionEngine.ALPHABET_SIZE];
+		for(int i = 0; i < distinctCount; i++) {
+			int quadgram = distinctQuadgrams[i];
+			for(int j = 3; j >= 0; j--) {
+				quadgramLetters[i * 4 + j] = (byte) (quadgram % SubstitutionEngine.ALPHABET_SIZE);
+				quadgramMasks[i] |= 1 << (quadgram % SubstitutionEngine.ALPHABET_SIZE);
+				quadgram /= SubstitutionEngine.ALPHABET_SIZE;
+			}
+			quadgramCounts[i] = counts[i];
+			for(int mask = quadgramMasks[i]; mask != 0; mask &= mask - 1) {
+				letterCounts[Integer.numberOfTrailingZeros(mask)]++;
+			}
+		}
+
+		quadgramsWithLetter = new int[SubstitutionEngine.ALPHABET_SIZE][];
+		for(int letter = 0; letter < quadgramsWithLetter.length; letter++) {
+			quadgramsWithLetter[letter] = new int[letterCounts[letter]];
+			letterCounts[letter] = 0;
+		}
+		for(int i = 0; i < distinctCount; i++) {
+			for(int mask = quadgramMasks[i]; mask != 0; mask &= mask - 1) {
+				int letter = Integer.numberOfTrailingZeros(mask);
+				quadgramsWithLetter[letter][letterCounts[letter]++] = i;
+			}
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Scores an alphabet : the higher, the more the decoded cryptogram looks like the corpus
+	 * @param alphabet A decoding alphabet
+	 * @return The sum of the logarithms of the probabilities of the quadgrams of the decoded cryptogram
+	 */
+	public double score(String alphabet) {
+		return statistics.score(cipherLetters, toTable(alphabet));
+	}
+
+	/**
+	 * Improves an alphabet by swapping two of its letters, as long as a swap raises the score : this refines an alphabet from another analysis,
+	 * such as the one returned by guessApproximatedAlphabet
+	 * @param alphabet The decoding alphabet from which the climb starts
+	 * @return The first alphabet which no swap improves
+	 */
+	public String climb(String alphabet) {
+		byte[] table = toTable(alphabet);
+		climb(table);
+		return SubstitutionEngine.toAlphabet(table);
+	}
+
+	/**
+	 * Climbs from random alphabets and keeps the best alphabet reached, the climbs being split between the threads of a fork-join pool.
+	 * The random alphabets only depend on the seed, and the first best climb wins the ties, so that the result does not depend on the number of threads.
+	 * @param restarts The number of climbs
+	 * @param seed The seed of the random alphabets
+	 * @param pool The pool running the climbs
+	 * @return The decoding alphabet with the best score
+	 */
+	public String climbWithRestarts(int restarts, long seed, ForkJoinPool pool) {
+		if(restarts < 1) {
+			throw new IllegalArgumentException("Please provide a positive number of restarts");
+		}
+		if(pool == null) {
+			throw new NullPointerException("Please provide a non null pool");
+		}
+
+		Climbs climbs = new Climbs(seed, 0, restarts, new String[restarts], new double[restarts]);
+		pool.invoke(climbs);
+		int best = 0;
+		for(int i = 1; i < restarts; i++) {
+			if(climbs.scores[i] > climbs.scores[best]) {
+				best = i;
+			}
+		}
+		return climbs.alphabets[best];
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Swaps two letters of an alphabet as long as a swap raises the score
+	 * @param table The decoding alphabet, as a table, replaced by the first alphabet which no swap improves
+	 * @return The score of the final alphabet
+	 */
+	private double climb(byte[] table) {
+		byte[] swapped = table.clone();
+		boolean improved = true;
+		while(improved) {
+			improved = false;
+			for(int a = 0; a < SubstitutionEngine.ALPHABET_SIZE; a++) {
+				for(int b = a + 1; b < SubstitutionEngine.ALPHABET_SIZE; b++) {
+					swapped[a] = table[b];
+					swapped[b] = table[a];
+					if(swapGain(table, swapped, a, b) > MIN_GAIN) {
+						table[a] = swapped[a];
+						table[b] = swapped[b];
+						improved = true;
+					} else {
+						swapped[a] = table[a];
+						swapped[b] = table[b];
+					}
+				}
+			}
+		}
+		return statistics.score(cipherLetters, table);
+	}
+
+	/**
+	 * Computes the change of score brought by swapping two letters of an alphabet, from the quadgrams containing one of them
+	 * @param table The current alphabet, as a table
+	 * @param swapped The alphabet with the two letters swapped, as a table
+	 * @param a The first cipher letter swapped
+	 * @param b The second cipher letter swapped
+	 * @return The score of the swapped alphabet minus the score of the current one
+	 */
+	private double swapGain(byte[] table, byte[] swapped, int a, int b) {
+		double gain = 0;
+		for(int quadgram : quadgramsWithLetter[a]) {
+			gain += quadgramGain(quadgram, table, swapped);
+		}
+		// The quadgrams containing both letters were counted with the first one
+		for(int quadgram : quadgramsWithLetter[b]) {
+			if((quadgramMasks[quadgram] & (1 << a)) == 0) {
+				gain += quadgramGain(quadgram, table, swapped);
+			}
+		}
+		return gain;
+	}
+
+	/**
+	 * Computes the change of score of a distinct quadgram of the cipher text between two alphabets
+	 * @param quadgram The index of the distinct quadgram
+	 * @param table The current alphabet, as a table
+	 * @param swapped The other alphabet, as a table
+	 * @return The change of score, for all the occurrences of the quadgram
+	 */
+	private double quadgramGain(int quadgram, byte[] table, byte[] swapped) {
+		int offset = quadgram * 4;
+		int current = 0;
+		int other = 0;
+		for(int j = 0; j < 4; j++) {
+			current = current * SubstitutionEngine.ALPHABET_SIZE + table[quadgramLetters[offset + j]];
+			other = other * SubstitutionEngine.ALPHABET_SIZE + swapped[quadgramLetters[offset + j]];
+		}
+		return quadgramCounts[quadgram] * ((double) statistics.getLogProbability(other) - statistics.getLogProbability(current));
+	}
+
+	/**
+	 * Converts an alphabet into a table, whatever its case
+	 * @param alphabet A decoding alphabet
+	 * @return The alphabet, as a table
+	 */
+	private static byte[] toTable(String alphabet) {
+		if(alphabet == null) {
+			throw new IllegalArgumentException("Please provide correct text and correct alphabet");
+		}
+		return SubstitutionEngine.toTable(alphabet.toUpperCase());
+	}
+
+	/**
+	 * This class runs climbs from random alphabets, splitting them between the threads of a fork-join pool.
+	 * Each climb has its own random generator and its own slot in the results, so the results do not depend on the order in which the threads run.
+	 */
+	private final class Climbs extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final long seed;
+		private final int from;
+		private final int to;
+		private final String[] alphabets;
+		private final double[] scores;
+
+		/**
+		 * This constructor creates the task of a range of climbs
+		 * @param seed The seed of the random alphabets
+		 * @param from The first climb of the task
+		 * @param to The climb after the last one of the task
+		 * @param alphabets The slots receiving the alphabet reached by each climb
+		 * @param scores The slots receiving the score of each alphabet
+		 */
+		private Climbs(long seed, int from, int to, String[] alphabets, double[] scores) {
+			this.seed = seed;
+			this.from = from;
+			this.to = to;
+			this.alphabets = alphabets;
+			this.scores = scores;
+		}
+
+		@Override
+		protected void compute() {
+			if(to - from > 1) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new Climbs(seed, from, middle, alphabets, scores), new Climbs(seed, middle, to, alphabets, scores));
+				return;
+			}
+
+			// A random alphabet : the letters shuffled by a generator of its own
+			SplittableRandom random = new SplittableRandom(seed + from);
+			byte[] table = SubstitutionEngine.toTable(LETTERS);
+			for(int i = table.length - 1; i > 0; i--) {
+				int j = random.nextInt(i + 1);
+				byte letter = table[i];
+				table[i] = table[j];
+				table[j] = letter;
+			}
+			scores[from] = climb(table);
+			alphabets[from] = SubstitutionEngine.toAlphabet(table);
+		}
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) throws IOException {
+		QuadgramStatistics statistics = new QuadgramStatistics(Files.readString(Paths.get(CORPUS_FILE), StandardCharsets.UTF_8));
+		String cryptogram = Files.readString(Paths.get(CRYPTOGRAM_FILE), StandardCharsets.UTF_8);
+		QuadgramAnalysis analysis = new QuadgramAnalysis(cryptogram, statistics);
+		System.out.println("Score of the decoding alphabet : " + analysis.score(DECODING_ALPHABET));
+
+		// Full scoring, one pass over the letters of the cryptogram
+		int scoringCount = 1000;
+		long startTime = System.nanoTime();
+		double total = 0;
+		for(int i = 0; i < scoringCount; i++) {
+			total += analysis.score(LETTERS);
+		}
+		System.out.println("Full scoring : " + (System.nanoTime() - startTime) / 1000 / scoringCount + " µs per alphabet (" + analysis.cipherLetters.length + " letters, score " + total / scoringCount + ")");
+		System.out.println();
+
+		// Random restarts
+		for(int run = 1; run <= 2; run++) {
+			startTime = System.currentTimeMillis();
+			String alphabet = analysis.climbWithRestarts(8, 42, ForkJoinPool.commonPool());
+			System.out.println("Climbs from 8 random alphabets : " + (System.currentTimeMillis() - startTime) / 1000.0 + " (" + ForkJoinPool.commonPool().getParallelism() + " threads)");
+			System.out.println("Alphabet : " + alphabet + (alphabet.equals(DECODING_ALPHABET) ? " (decoding alphabet)" : ""));
+		}
+		System.out.println();
+
+		// Refinement of the dictionary-based analysis
+		LexicographicTree dict = new LexicographicTree(DICTIONARY);
+		String approximatedAlphabet = new DictionaryBasedAnalysis(cryptogram.substring(0, 5_000), dict).guessApproximatedAlphabet(LETTERS);
+		startTime = System.currentTimeMillis();
+		String alphabet = analysis.climb(approximatedAlphabet);
+		System.out.println("Climb from the analysis of an excerpt : " + (System.currentTimeMillis() - startTime) / 1000.0);
+		System.out.println("Approximated alphabet : " + approximatedAlphabet);
+		System.out.println("Alphabet              : " + alphabet + (alphabet.equals(DECODING_ALPHABET) ? " (decoding alphabet)" : ""));
+	}
+}
@@ -0,0 +1,158 @@
+package cryptanalysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.text.Normalizer;
+import java.util.Arrays;
+
+/**
+ * This class holds the logarithm of the probability of each sequence of four letters (quadgram), learnt from a plain text.
+ * The letters are taken without accents nor case, and everything else is skipped : "C'est là" gives the quadgrams CEST, ESTL and STLA.
+ * The probabilities are kept in a flat table of 26^4 floats, indexed by the letter indexes read as a number in base 26, so that scoring a text is a loop of lookups.
+ * @author Maxime Cao
+ *
+ */
+public final class QuadgramStatistics {
+	static final int QUADGRAM_COUNT = SubstitutionEngine.ALPHABET_SIZE * SubstitutionEngine.ALPHABET_SIZE * SubstitutionEngine.ALPHABET_SIZE * SubstitutionEngine.ALPHABET_SIZE;
+	// A quadgram never seen is given a hundredth of an occurrence
+	private static final double UNSEEN_OCCURRENCES = 0.01;
+	private static final int TRIGRAM_COUNT = SubstitutionEngine.ALPHABET_SIZE * SubstitutionEngine.ALPHABET_SIZE * SubstitutionEngine.ALPHABET_SIZE;
+	private static final byte[] IDENTITY = SubstitutionEngine.toTable("ABCDEFGHIJKLMNOPQRSTUVWXYZ");
+
+	private final float[] logProbabilities = new float[QUADGRAM_COUNT];
+	private final int quadgramTotal;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : counts the quadgrams of a plain text
+	 * @param corpus A plain text, in the language of the cryptograms to score
+	 */
+	public QuadgramStatistics(CharSequence corpus) {
+		if(corpus == null) {
+			throw new IllegalArgumentException("Please provide a correct corpus");
+		}
+
+		byte[] letters = encodeLetters(corpus);
+		if(letters.length < 4) {
+			throw new IllegalArgumentException("Please provide a correct corpus");
+		}
+		int[] counts = new int[QUADGRAM_COUNT];
+		int quadgram = letters[0] * SubstitutionEngine.ALPHABET_SIZE * SubstitutionEngine.ALPHABET_SIZE + letters[1] * SubstitutionEngine.ALPHABET_SIZE + letters[2];
+		for(int i = 3; i < letters.length; i++) {
+			quadgram = quadgram % TRIGRAM_COUNT * SubstitutionEngine.ALPHABET_SIZE + letters[i];
+			counts[quadgram]++;
+		}
+		int total = letters.length - 3;
+
+		quadgramTotal = total;
+		for(int i = 0; i < QUADGRAM_COUNT; i++) {
+			logProbabilities[i] = (float) Math.log10((counts[i] == 0 ? UNSEEN_OCCURRENCES : counts[i]) / total);
+		}
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Scores a text : the higher, the more the text looks like the corpus
+	 * @param text A text
+	 * @return The sum of the logarithms of the probabilities of the quadgrams of the text
+	 */
+	public double score(CharSequence text) {
+		return score(encodeLetters(text), IDENTITY);
+	}
+
+	/**
+	 * Get the logarithm of the probability of a quadgram
+	 * @param quadgram A quadgram of letters between A and Z, whatever their case
+	 * @return The logarithm in base 10 of the probability of the quadgram
+	 */
+	public float getLogProbability(CharSequence quadgram) {
+		if(quadgram == null || quadgram.length() != 4) {
+			throw new IllegalArgumentException("Please provide a quadgram of four letters");
+		}
+		int index = 0;
+		for(int i = 0; i < 4; i++) {
+			int letter = SubstitutionEngine.letterIndex(quadgram.charAt(i));
+			if(letter < 0) {
+				throw new IllegalArgumentException("Please provide a quadgram of four letters");
+			}
+			index = index * SubstitutionEngine.ALPHABET_SIZE + letter;
+		}
+		return logProbabilities[index];
+	}
+
+	/**
+	 * Get the number of quadgrams counted in the corpus
+	 * @return The number of quadgrams of the corpus
+	 */
+	public int getQuadgramTotal() {
+		return quadgramTotal;
+	}
+
+	/**
+	 * Scores the decoding of a cipher text, in a single pass over its letters
+	 * @param letters The letter indexes of the cipher text, without anything else
+	 * @param table The substitution alphabet, as a table
+	 * @return The sum of the logarithms of the probabilities of the quadgrams of the decoded text
+	 */
+	double score(byte[] letters, byte[] table) {
+		if(letters.length < 4) {
+			return 0;
+		}
+		int quadgram = ((table[letters[0]] * SubstitutionEngine.ALPHABET_SIZE + table[letters[1]]) * SubstitutionEngine.ALPHABET_SIZE + table[letters[2]]) * SubstitutionEngine.ALPHABET_SIZE
+				+ table[letters[3]];
+		double score = logProbabilities[quadgram];
+		// The first letter of the quadgram is removed and the next letter appended, rather than recomputing the index
+		for(int i = 4; i < letters.length; i++) {
+			quadgram = (quadgram - table[letters[i - 4]] * TRIGRAM_COUNT) * SubstitutionEngine.ALPHABET_SIZE + table[letters[i]];
+			score += logProbabilities[quadgram];
+		}
+		return score;
+	}
+
+	/**
+	 * Encodes the letters of a text, the accents being split from their letters and skipped as any character which is not a letter
+	 * @param text A text
+	 * @return The letter indexes of the text (0 for 'A'), without anything else
+	 */
+	static byte[] encodeLetters(CharSequence text) {
+		String letters = Normalizer.normalize(text, Normalizer.Form.NFD);
+		byte[] encoded = new byte[letters.length()];
+		int length = 0;
+		for(int i = 0; i < letters.length(); i++) {
+			int letter = SubstitutionEngine.letterIndex(letters.charAt(i));
+			if(letter >= 0) {
+				encoded[length++] = (byte) letter;
+			}
+		}
+		return Arrays.copyOf(encoded, length);
+	}
+
+	/**
+	 * Get the logarithm of the probability of a quadgram
+	 * @param quadgram The index of the quadgram, its letter indexes read as a number in base 26
+	 * @return The logarithm in base 10 of the probability of the quadgram
+	 */
+	float getLogProbability(int quadgram) {
+		return logProbabilities[quadgram];
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) throws IOException {
+		QuadgramStatistics statistics = new QuadgramStatistics(Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes.txt"), StandardCharsets.UTF_8));
+		System.out.println(statistics.getQuadgramTotal() + " quadgrams counted");
+		for(String quadgram : new String[] {"TION", "MENT", "QUES", "ELLE", "ZZZZ"}) {
+			System.out.println(quadgram + " : " + statistics.getLogProbability(quadgram));
+		}
+	}
+}
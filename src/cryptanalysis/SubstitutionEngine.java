@@ -0,0 +1,201 @@
+package cryptanalysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+/**
+ * This class applies substitution alphabets to a text encoded once as one byte per character : 0 to 25 for the letters, then codes for the spaces and the line breaks.
+ * An alphabet is a table of 26 bytes giving the letter index substituted to each letter index, so applying it costs one table lookup per character, without any String or StringBuilder.
+ * The other characters of the text are dropped, like in DictionaryBasedAnalysis.applySubstitution.
+ * @author Maxime Cao
+ *
+ */
+public final class SubstitutionEngine {
+	public static final int ALPHABET_SIZE = 26;
+	public static final byte SPACE = ALPHABET_SIZE;
+	public static final byte NEWLINE = ALPHABET_SIZE + 1;
+	private static final int CODE_COUNT = ALPHABET_SIZE + 2;
+
+	private final byte[] encodedText;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : encodes a text
+	 * @param text A text, letters of any case
+	 */
+	public SubstitutionEngine(CharSequence text) {
+		encodedText = encode(text);
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Get the number of characters kept from the text
+	 * @return The length of the encoded text
+	 */
+	public int length() {
+		return encodedText.length;
+	}
+
+	/**
+	 * Get the code of a character of the encoded text
+	 * @param index The position of the character
+	 * @return The letter index (0 for 'A'), SPACE or NEWLINE
+	 */
+	public byte codeAt(int index) {
+		return encodedText[index];
+	}
+
+	/**
+	 * Applies an alphabet to the whole text and writes the result as ASCII characters into a buffer, which can be reused from one alphabet to the next
+	 * @param table The alphabet table (see toTable)
+	 * @param target The buffer receiving the substituted text, at least length() bytes
+	 */
+	public void decode(byte[] table, byte[] target) {
+		if(target.length < encodedText.length) {
+			throw new IllegalArgumentException("Please provide a buffer at least as long as the text");
+		}
+
+		byte[] characters = new byte[CODE_COUNT];
+		for(int letter = 0; letter < ALPHABET_SIZE; letter++) {
+			characters[letter] = (byte) ('A' + table[letter]);
+		}
+		characters[SPACE] = ' ';
+		characters[NEWLINE] = '\n';
+
+		byte[] source = encodedText;
+		for(int i = 0; i < source.length; i++) {
+			target[i] = characters[source[i]];
+		}
+	}
+
+	/**
+	 * Applies an alphabet to the whole text
+	 * @param table The alphabet table (see toTable)
+	 * @return The substituted text, in uppercase
+	 */
+	public String decode(byte[] table) {
+		byte[] target = new byte[encodedText.length];
+		decode(table, target);
+		return new String(target, StandardCharsets.ISO_8859_1);
+	}
+
+	/**
+	 * Converts a substitution alphabet into a table
+	 * @param alphabet 26 distinct uppercase letters, the letter substituted to A first
+	 * @return The letter index substituted to each letter index
+	 */
+	public static byte[] toTable(String alphabet) {
+		if(alphabet.length() != ALPHABET_SIZE) {
+			throw new IllegalArgumentException("Please provide correct text and correct alphabet");
+		}
+
+		byte[] table = new byte[ALPHABET_SIZE];
+		int usedLetters = 0;
+		for(int i = 0; i < ALPHABET_SIZE; i++) {
+			int letter = alphabet.charAt(i) - 'A';
+			if(letter < 0 || letter >= ALPHABET_SIZE || (usedLetters & (1 << letter)) != 0) {
+				throw new IllegalArgumentException("Please provide correct text and correct alphabet");
+			}
+			usedLetters |= 1 << letter;
+			table[i] = (byte) letter;
+		}
+		return table;
+	}
+
+	/**
+	 * Converts a table back into a substitution alphabet
+	 * @param table The letter index substituted to each letter index
+	 * @return The alphabet, in uppercase
+	 */
+	public static String toAlphabet(byte[] table) {
+		char[] alphabet = new char[ALPHABET_SIZE];
+		for(int i = 0; i < ALPHABET_SIZE; i++) {
+			alphabet[i] = (char) ('A' + table[i]);
+		}
+		return new String(alphabet);
+	}
+
+	/**
+	 * Encodes a text as one byte per kept character
+	 * @param text A text
+	 * @return The letter indexes (0 for 'A'), SPACE and NEWLINE codes of the text, the other characters being dropped
+	 */
+	public static byte[] encode(CharSequence text) {
+		byte[] encoded = new byte[text.length()];
+		int length = 0;
+		for(int i = 0; i < text.length(); i++) {
+			char currentChar = text.charAt(i);
+			int letter = letterIndex(currentChar);
+			if(letter >= 0) {
+				encoded[length++] = (byte) letter;
+			} else if(currentChar == ' ') {
+				encoded[length++] = SPACE;
+			} else if(currentChar == '\n') {
+				encoded[length++] = NEWLINE;
+			}
+		}
+		return length == encoded.length ? encoded : Arrays.copyOf(encoded, length);
+	}
+
+	/**
+	 * Returns the index of a letter, whatever its case
+	 * @param character A character
+	 * @return The letter index (0 for 'A'), or -1 if the character is not a letter between A and Z once in uppercase
+	 */
+	public static int letterIndex(char character) {
+		if(character >= 'A' && character <= 'Z') {
+			return character - 'A';
+		}
+		if(character >= 'a' && character <= 'z') {
+			return character - 'a';
+		}
+		if(character < 128) {
+			return -1;
+		}
+		// A few other characters become a letter in uppercase, such as the dotless i
+		char upperCharacter = Character.toUpperCase(character);
+		return upperCharacter >= 'A' && upperCharacter <= 'Z' ? upperCharacter - 'A' : -1;
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) throws IOException {
+		String cryptogram = Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes (cryptogram).txt"), StandardCharsets.UTF_8);
+		SubstitutionEngine engine = new SubstitutionEngine(cryptogram);
+		byte[] table = toTable("VNSTBIQLWOZUEJMRYGCPDKHXAF");
+		byte[] buffer = new byte[engine.length()];
+		int decodeCount = 20_000;
+		long checksum = 0;
+
+		for(int run = 1; run <= 3; run++) {
+			long startTime = System.nanoTime();
+			for(int i = 0; i < decodeCount; i++) {
+				engine.decode(table, buffer);
+				checksum += buffer[i % buffer.length];
+			}
+			long tableDuration = System.nanoTime() - startTime;
+
+			startTime = System.nanoTime();
+			for(int i = 0; i < decodeCount / 100; i++) {
+				checksum += DictionaryBasedAnalysis.applySubstitution(cryptogram, "VNSTBIQLWOZUEJMRYGCPDKHXAF").length();
+			}
+			long stringDuration = (System.nanoTime() - startTime) * 100;
+
+			System.out.println("Run " + run + " : " + (long) engine.length() * decodeCount * 1000 / tableDuration + " MB/s into a reused buffer, "
+					+ (long) engine.length() * decodeCount * 1000 / stringDuration + " MB/s with applySubstitution");
+		}
+		System.out.println("Checksum : " + checksum);
+		System.out.println(engine.decode(table).substring(0, 100));
+	}
+}
@@ -0,0 +1,205 @@
+package cryptanalysis;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+/**
+ * This class remembers whether decoded words are in the dictionary, so that a word decoded again by another alphabet costs one probe instead of a walk in the tree.
+ * A word of up to 12 letters is packed into a long, 5 bits per letter (letter index plus one, so that no word gives 0), and its validity is kept in the highest bit :
+ * each entry is a single long, read and written at once through an AtomicLongArray (a plain long may be split in two writes),
+ * which lets several threads share the cache without locks : a thread sees either a whole entry or none. Longer words are not cached.
+ * The table has a fixed size : when the slots near the place of a word are all used, the word replaces the entry at its place.
+ * The cache pays off when the same words are decoded again and again, as when fully scoring many alphabets which share most of their letters.
+ * It does not for the greedy analysis, whose candidates mostly decode words never seen before : there, the walk in the compacted tree, which stops at the first missing prefix, is as cheap as a probe.
+ * The analyses use it when created with a cache capacity (see DictionaryBasedAnalysis), which is not the default.
+ * @author Maxime Cao
+ *
+ */
+final class ValidityCache {
+	private static final int MAX_CACHED_LENGTH = 12;
+	private static final int BITS_PER_LETTER = 5;
+	private static final long VALID = 1L << 63;
+	private static final int MAX_PROBES = 8;
+
+	private final CompactTree dictionnary;
+	private final AtomicLongArray entries;
+	private final int mask;
+	private final LongAdder hitCount = new LongAdder();
+	private final LongAdder missCount = new LongAdder();
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates an empty cache
+	 * @param dict The compacted dictionary
+	 * @param capacity The maximum number of words kept, rounded up to a power of two
+	 */
+	ValidityCache(CompactTree dict, int capacity) {
+		if(capacity < 1 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("Please provide a capacity between 1 and 2^30");
+		}
+
+		dictionnary = dict;
+		entries = new AtomicLongArray(capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1);
+		mask = entries.length() - 1;
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Determines whether a cipher word becomes a word of the dictionary after applying a substitution. Several threads can call this method at the same time.
+	 * @param letters The letter indexes of the cipher word
+	 * @param table The substitution alphabet, as a table
+	 * @return True if the substituted word is present in the dictionary, false otherwise
+	 */
+	boolean isValidWord(byte[] letters, byte[] table) {
+		if(letters.length > MAX_CACHED_LENGTH || letters.length == 0) {
+			return isValidWord(dictionnary, letters, table);
+		}
+
+		long key = 0;
+		for(int i = letters.length - 1; i >= 0; i--) {
+			key = key << BITS_PER_LETTER | (table[letters[i]] + 1);
+		}
+
+		int home = hash(key);
+		int free = -1;
+		for(int probe = 0; probe < MAX_PROBES; probe++) {
+			int slot = (home + probe) & mask;
+			// Opaque access is enough : an entry only has to be whole, not ordered with the other ones
+			long entry = entries.getOpaque(slot);
+			if(entry == 0) {
+				free = slot;
+				break;
+			}
+			if((entry & ~VALID) == key) {
+				hitCount.increment();
+				return entry < 0;
+			}
+		}
+
+		missCount.increment();
+		boolean valid = isValidWord(dictionnary, letters, table);
+		entries.setOpaque(free >= 0 ? free : home, valid ? key | VALID : key);
+		return valid;
+	}
+
+	/**
+	 * Determines whether a cipher word becomes a word of the dictionary after applying a substitution, by walking the compacted dictionary with the substituted letters
+	 * @param dict The compacted dictionary
+	 * @param letters The letter indexes of the cipher word
+	 * @param table The substitution alphabet, as a table
+	 * @return True if the substituted word is present in the dictionary, false otherwise
+	 */
+	static boolean isValidWord(CompactTree dict, byte[] letters, byte[] table) {
+		int node = CompactTree.ROOT;
+		for(int i = 0; i < letters.length && node != CompactTree.NO_NODE; i++) {
+			node = dict.child(node, table[letters[i]]);
+		}
+		return node != CompactTree.NO_NODE && dict.isWord(node);
+	}
+
+	/**
+	 * Get the dictionary behind the cache
+	 * @return The compacted dictionary
+	 */
+	CompactTree getDictionary() {
+		return dictionnary;
+	}
+
+	/**
+	 * Get the number of words found in the cache
+	 * @return The number of hits
+	 */
+	long getHitCount() {
+		return hitCount.sum();
+	}
+
+	/**
+	 * Get the number of cacheable words which had to be looked up in the dictionary
+	 * @return The number of misses
+	 */
+	long getMissCount() {
+		return missCount.sum();
+	}
+
+	/**
+	 * Get the share of the cacheable words answered by the cache
+	 * @return The hit rate, between 0 and 1
+	 */
+	double getHitRate() {
+		long hits = hitCount.sum();
+		long requestCount = hits + missCount.sum();
+		return requestCount == 0 ? 0 : hits / (double) requestCount;
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Spreads the bits of a packed word over the slots of the table
+	 * @param key A packed word
+	 * @return The home slot of the word
+	 */
+	private int hash(long key) {
+		long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> 32) & mask;
+	}
+
+	/*
+	 * MAIN PROGRAM
+	 */
+
+	public static void main(String[] args) throws IOException {
+		System.out.println("Loading dictionary...");
+		CompactTree dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt").getCompactTree();
+		String cryptogram = Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes (cryptogram).txt"), StandardCharsets.UTF_8);
+		CipherWords words = new CipherWords(cryptogram, 3);
+		System.out.println();
+
+		// Full scoring of alphabets a few swaps away from the decoding alphabet, as done when comparing several alphabets close to each other
+		int alphabetCount = 400;
+		byte[][] tables = new byte[alphabetCount][];
+		SplittableRandom random = new SplittableRandom(42);
+		for(int i = 0; i < alphabetCount; i++) {
+			tables[i] = SubstitutionEngine.toTable("VNSTBIQLWOZUEJMRYGCPDKHXAF");
+			for(int swap = random.nextInt(1, 4); swap > 0; swap--) {
+				int a = random.nextInt(SubstitutionEngine.ALPHABET_SIZE);
+				int b = random.nextInt(SubstitutionEngine.ALPHABET_SIZE);
+				byte letter = tables[i][a];
+				tables[i][a] = tables[i][b];
+				tables[i][b] = letter;
+			}
+		}
+
+		for(int run = 1; run <= 3; run++) {
+			ValidityCache cache = new ValidityCache(dictionary, 1 << 20);
+			long startTime = System.nanoTime();
+			long cachedScore = 0;
+			for(byte[] table : tables) {
+				cachedScore += new WordValidity(words, cache, table).getInvalidCount();
+			}
+			long cachedTime = System.nanoTime();
+			long score = 0;
+			for(byte[] table : tables) {
+				score += new WordValidity(words, dictionary, table).getInvalidCount();
+			}
+			long time = System.nanoTime();
+			System.out.println("Run " + run + " : " + (cachedTime - startTime) / 1_000_000 + " ms with the cache (hit rate " + Math.round(cache.getHitRate() * 100) + " %), "
+					+ (time - cachedTime) / 1_000_000 + " ms without" + (score == cachedScore ? "" : " (different scores)"));
+		}
+	}
+}
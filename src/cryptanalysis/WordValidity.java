@@ -0,0 +1,154 @@
+package cryptanalysis;
+
+import tree.CompactTree;
+
+/**
+ * This class keeps which words of a cryptogram are valid (present in the dictionary) under a substitution alphabet.
+ * A candidate alphabet usually differs from the current one in a few letters : only the words containing one of these letters are checked again,
+ * so scoring a candidate costs the number of affected words instead of the number of words.
+ * @author Maxime Cao
+ *
+ */
+final class WordValidity {
+	private final CipherWords words;
+	private final CompactTree dictionnary;
+	private final ValidityCache cache;
+	private final byte[] table;
+	private final boolean[] validWords;
+	private int invalidCount;
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : checks all the words under a first alphabet
+	 * @param words The words of the cryptogram
+	 * @param dict The compacted dictionary
+	 * @param table The first substitution alphabet, as a table
+	 */
+	WordValidity(CipherWords words, CompactTree dict, byte[] table) {
+		this(words, dict, null, table);
+	}
+
+	/**
+	 * Constructor : checks all the words under a first alphabet, the decoded words being looked up in a cache before the dictionary
+	 * @param words The words of the cryptogram
+	 * @param cache The validity of the decoded words already looked up
+	 * @param table The first substitution alphabet, as a table
+	 */
+	WordValidity(CipherWords words, ValidityCache cache, byte[] table) {
+		this(words, cache.getDictionary(), cache, table);
+	}
+
+	/**
+	 * Constructor : checks all the words under a first alphabet
+	 * @param words The words of the cryptogram
+	 * @param dict The compacted dictionary
+	 * @param cache The validity of the decoded words already looked up, or null
+	 * @param table The first substitution alphabet, as a table
+	 */
+	private WordValidity(CipherWords words, CompactTree dict, ValidityCache cache, byte[] table) {
+		this.words = words;
+		this.dictionnary = dict;
+		this.cache = cache;
+		this.table = table.clone();
+		validWords = new boolean[words.size()];
+		for(int i = 0; i < validWords.length; i++) {
+			validWords[i] = isValidWord(i, this.table);
+			if(!validWords[i]) {
+				invalidCount++;
+			}
+		}
+	}
+
+	/**
+	 * Constructor : copies the validity of the words under the alphabet of another instance
+	 * @param other The instance to copy
+	 */
+	WordValidity(WordValidity other) {
+		words = other.words;
+		dictionnary = other.dictionnary;
+		cache = other.cache;
+		table = other.table.clone();
+		validWords = other.validWords.clone();
+		invalidCount = other.invalidCount;
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Get the number of words which are not valid under the current alphabet
+	 * @return The number of invalid words
+	 */
+	int getInvalidCount() {
+		return invalidCount;
+	}
+
+	/**
+	 * Determines whether a word is valid under the current alphabet
+	 * @param word The index of the word
+	 * @return True if the substituted word is present in the dictionary, false otherwise
+	 */
+	boolean isValid(int word) {
+		return validWords[word];
+	}
+
+	/**
+	 * Counts the invalid words under another alphabet, without changing the current one. Several threads can call this method at the same time.
+	 * @param newTable The other substitution alphabet, as a table
+	 * @return The number of invalid words under the other alphabet
+	 */
+	int countInvalidWords(byte[] newTable) {
+		int newInvalidCount = invalidCount;
+		int changedBefore = 0;
+		for(int letter = 0; letter < SubstitutionEngine.ALPHABET_SIZE; letter++) {
+			if(newTable[letter] != table[letter]) {
+				// A word containing several changed letters is only checked for the first one
+				for(int word : words.getWordsWithLetter(letter)) {
+					if((words.getLetterMask(word) & changedBefore) == 0 && isValidWord(word, newTable) != validWords[word]) {
+						newInvalidCount += validWords[word] ? 1 : -1;
+					}
+				}
+				changedBefore |= 1 << letter;
+			}
+		}
+		return newInvalidCount;
+	}
+
+	/**
+	 * Replaces the current alphabet, checking again the words containing a changed letter
+	 * @param newTable The new substitution alphabet, as a table
+	 */
+	void setTable(byte[] newTable) {
+		for(int letter = 0; letter < SubstitutionEngine.ALPHABET_SIZE; letter++) {
+			if(newTable[letter] != table[letter]) {
+				for(int word : words.getWordsWithLetter(letter)) {
+					boolean valid = isValidWord(word, newTable);
+					if(valid != validWords[word]) {
+						validWords[word] = valid;
+						invalidCount += valid ? -1 : 1;
+					}
+				}
+			}
+		}
+		System.arraycopy(newTable, 0, table, 0, table.length);
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Determines whether a cipher word becomes a word of the dictionary after applying a substitution
+	 * @param word The index of the cipher word
+	 * @param substitution The substitution alphabet, as a table
+	 * @return True if the substituted word is present in the dictionary, false otherwise
+	 */
+	private boolean isValidWord(int word, byte[] substitution) {
+		byte[] letters = words.getLetters(word);
+		return cache == null ? ValidityCache.isValidWord(dictionnary, letters, substitution) : cache.isValidWord(letters, substitution);
+	}
+}
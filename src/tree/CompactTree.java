@@ -0,0 +1,338 @@
+package tree;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * This class is a read-only, array-based copy of a lexicographic tree restricted to the letters a to z.
+ * Each node is an integer, its children are stored contiguously and are reached with a 26-bit mask, so walking the tree allocates nothing.
+ * Each word gets an identifier, identifiers follow the alphabetical order of the words.
+ * @author Maxime Cao
+ *
+ */
+public class CompactTree {
+	public static final int ROOT = 0;
+	public static final int NO_NODE = -1;
+	public static final int NO_WORD = -1;
+	public static final int ALPHABET_SIZE = 26;
+
+	private final int[] childMasks;
+	private final int[] firstChildren;
+	private final int[] parents;
+	private final byte[] letters;
+	private final byte[] depths;
+	private final byte[] heights;
+	private final int[] descendantMasks;
+	private final int[] wordIds;
+	private final int[] wordNodes;
+	// Structures computed from the tree by other packages, such as indexes, which live as long as the tree
+	private final Map<Class<?>, Object> derivedStructures = new ConcurrentHashMap<>();
+
+	/*
+	 * CONSTRUCTORS
+	 */
+
+	/**
+	 * Constructor : creates a compact copy of a lexicographic tree
+	 * @param tree The lexicographic tree to copy
+	 */
+	public CompactTree(LexicographicTree tree) {
+		int nodeCount = countNodes(tree.getRoot());
+		childMasks = new int[nodeCount];
+		firstChildren = new int[nodeCount];
+		parents = new int[nodeCount];
+		letters = new byte[nodeCount];
+		depths = new byte[nodeCount];
+		heights = new byte[nodeCount];
+		descendantMasks = new int[nodeCount];
+		wordIds = new int[nodeCount];
+		Arrays.fill(wordIds, NO_WORD);
+
+		boolean[] endWords = new boolean[nodeCount];
+		fillNodes(tree.getRoot(), endWords);
+		computeHeightsAndDescendants();
+		wordNodes = numberWords(endWords);
+	}
+
+	/*
+	 * PUBLIC METHODS
+	 */
+
+	/**
+	 * Returns the child of a node for a given letter
+	 * @param node A node
+	 * @param letter A letter index (0 for 'a', 25 for 'z')
+	 * @return The child node, or NO_NODE if there is none
+	 */
+	public int child(int node, int letter) {
+		int mask = childMasks[node];
+		int bit = 1 << letter;
+		if ((mask & bit) == 0) {
+			return NO_NODE;
+		}
+		return firstChildren[node] + Integer.bitCount(mask & (bit - 1));
+	}
+
+	/**
+	 * Returns the letters for which a node has a child, as a 26-bit mask
+	 * @param node A node
+	 * @return The mask of the letters of the children (bit 0 for 'a')
+	 */
+	public int childMask(int node) {
+		return childMasks[node];
+	}
+
+	/**
+	 * Returns the identifier of the word ending at a node
+	 * @param node A node
+	 * @return The word identifier, or NO_WORD if the node is not a word node
+	 */
+	public int wordId(int node) {
+		return wordIds[node];
+	}
+
+	/**
+	 * Determines whether a node is a word node
+	 * @param node A node
+	 * @return True if a word ends at this node, false otherwise
+	 */
+	public boolean isWord(int node) {
+		return wordIds[node] != NO_WORD;
+	}
+
+	/**
+	 * Returns the number of letters between the root and a node
+	 * @param node A node
+	 * @return The depth of the node
+	 */
+	public int depth(int node) {
+		return depths[node];
+	}
+
+	/**
+	 * Returns the greatest number of letters that can still follow a node
+	 * @param node A node
+	 * @return The length of the longest path from the node to a word node below it
+	 */
+	public int height(int node) {
+		return heights[node];
+	}
+
+	/**
+	 * Returns the letters that appear somewhere below a node, as a 26-bit mask
+	 * @param node A node
+	 * @return The mask of the letters of all the descendants of the node (bit 0 for 'a')
+	 */
+	public int descendantMask(int node) {
+		return descendantMasks[node];
+	}
+
+	/**
+	 * Returns the parent of a node
+	 * @param node A node
+	 * @return The parent node, or NO_NODE for the root
+	 */
+	public int parent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * Returns the letter leading to a node
+	 * @param node A node other than the root
+	 * @return The letter index of the node (0 for 'a')
+	 */
+	public int letter(int node) {
+		return letters[node];
+	}
+
+	/**
+	 * Returns the node at which a word ends
+	 * @param wordId A word identifier
+	 * @return The word node
+	 */
+	public int wordNode(int wordId) {
+		return wordNodes[wordId];
+	}
+
+	/**
+	 * Returns the number of letters of a word
+	 * @param wordId A word identifier
+	 * @return The length of the word
+	 */
+	public int wordLength(int wordId) {
+		return depths[wordNodes[wordId]];
+	}
+
+	/**
+	 * Rebuilds a word from its identifier
+	 * @param wordId A word identifier
+	 * @return The word
+	 */
+	public String word(int wordId) {
+		int node = wordNodes[wordId];
+		char[] word = new char[depths[node]];
+		for (int i = word.length - 1; i >= 0; i--) {
+			word[i] = (char) ('a' + letters[node]);
+			node = parents[node];
+		}
+		return new String(word);
+	}
+
+	/**
+	 * Returns the node reached by a sequence of letters
+	 * @param sequence A sequence of lowercase letters
+	 * @return The node reached, or NO_NODE if the sequence is not a prefix of the tree
+	 */
+	public int find(CharSequence sequence) {
+		int node = ROOT;
+		for (int i = 0; i < sequence.length() && node != NO_NODE; i++) {
+			int letter = sequence.charAt(i) - 'a';
+			if (letter < 0 || letter >= ALPHABET_SIZE) {
+				return NO_NODE;
+			}
+			node = child(node, letter);
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the number of nodes in the tree
+	 * @return The number of nodes
+	 */
+	public int nodeCount() {
+		return childMasks.length;
+	}
+
+	/**
+	 * Returns the number of words in the tree
+	 * @return The number of words
+	 */
+	public int wordCount() {
+		return wordNodes.length;
+	}
+
+	/**
+	 * Returns a structure computed from the tree, built on first call and kept as long as the tree : a lexicographic tree changed by insertWord
+	 * gets a new compact tree, so the structures of the old one are dropped with it
+	 * @param <T> The type of the structure
+	 * @param type The class of the structure, which identifies it
+	 * @param builder The function building the structure from the tree
+	 * @return The structure of the given class
+	 */
+	public <T> T getDerivedStructure(Class<T> type, Function<CompactTree, ? extends T> builder) {
+		return type.cast(derivedStructures.computeIfAbsent(type, key -> builder.apply(this)));
+	}
+
+	/*
+	 * PRIVATE METHODS
+	 */
+
+	/**
+	 * Determines whether a node of the lexicographic tree is kept in the compact tree
+	 * @param vertex The node to check
+	 * @return True if the node holds a letter between a and z, false otherwise
+	 */
+	private static boolean isKept(TreeVertex vertex) {
+		char value = vertex.getVertexValue();
+		return value >= 'a' && value <= 'z';
+	}
+
+	/**
+	 * Counts the nodes of the lexicographic tree that are kept in the compact tree
+	 * @param root The root of the lexicographic tree
+	 * @return The number of nodes, root included
+	 */
+	private static int countNodes(TreeVertex root) {
+		int count = 0;
+		Deque<TreeVertex> stack = new ArrayDeque<>();
+		stack.push(root);
+		while (!stack.isEmpty()) {
+			TreeVertex vertex = stack.pop();
+			count++;
+			if (vertex.getChildren() != null) {
+				for (var child : vertex.getChildren()) {
+					if (isKept(child)) {
+						stack.push(child);
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Copies the lexicographic tree breadth-first so that the children of a node are contiguous
+	 * @param root The root of the lexicographic tree
+	 * @param endWords Filled with the word nodes
+	 */
+	private void fillNodes(TreeVertex root, boolean[] endWords) {
+		TreeVertex[] queue = new TreeVertex[childMasks.length];
+		queue[0] = root;
+		parents[ROOT] = NO_NODE;
+		int nextFree = 1;
+
+		for (int node = 0; node < nextFree; node++) {
+			TreeVertex vertex = queue[node];
+			endWords[node] = node != ROOT && vertex.isEndWord();
+			firstChildren[node] = nextFree;
+			if (vertex.getChildren() != null) {
+				// Children are sorted, so their letters are added to the mask in increasing order
+				for (var child : vertex.getChildren()) {
+					if (isKept(child)) {
+						int letter = child.getVertexValue() - 'a';
+						childMasks[node] |= 1 << letter;
+						queue[nextFree] = child;
+						parents[nextFree] = node;
+						letters[nextFree] = (byte) letter;
+						depths[nextFree] = (byte) (depths[node] + 1);
+						nextFree++;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes the height and the descendant letters of every node. Children always come after their parent, so a single backward pass is enough.
+	 */
+	private void computeHeightsAndDescendants() {
+		for (int node = childMasks.length - 1; node > ROOT; node--) {
+			int parent = parents[node];
+			descendantMasks[parent] |= descendantMasks[node] | (1 << letters[node]);
+			if (heights[parent] <= heights[node]) {
+				heights[parent] = (byte) (heights[node] + 1);
+			}
+		}
+	}
+
+	/**
+	 * Gives an identifier to each word, in alphabetical order
+	 * @param endWords The word nodes
+	 * @return The node of each word, indexed by word identifier
+	 */
+	private int[] numberWords(boolean[] endWords) {
+		int[] nodes = new int[childMasks.length];
+		int count = 0;
+		int[] stack = new int[childMasks.length];
+		int top = 0;
+		stack[top++] = ROOT;
+
+		while (top > 0) {
+			int node = stack[--top];
+			if (endWords[node]) {
+				wordIds[node] = count;
+				nodes[count++] = node;
+			}
+			// Children are pushed in reverse order so that they are visited in alphabetical order
+			int childCount = Integer.bitCount(childMasks[node]);
+			for (int i = childCount - 1; i >= 0; i--) {
+				stack[top++] = firstChildren[node] + i;
+			}
+		}
+		return Arrays.copyOf(nodes, count);
+	}
+}
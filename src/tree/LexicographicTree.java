@@ -15,6 +15,7 @@ public class LexicographicTree {
 
 	private final TreeVertex root;
 	private int treeSize;
+	private volatile CompactTree compactTree;
 
 	/*
 	 * CONSTRUCTORS
@@ -58,6 +59,7 @@ public class LexicographicTree {
 	 * @param word A word
 	 */
 	public void insertWord(String word) {
+		compactTree = null;
 		if (word.isEmpty()) {
 			insertEmptyWord();
 		} else {
@@ -140,6 +142,29 @@ public class LexicographicTree {
 		return words;
 	}
 
+	/**
+	 * Returns a compact copy of the lexicographic tree, built on first call and kept until the next insertion.
+	 * 
+	 * @return The compact copy of the lexicographic tree
+	 */
+	public CompactTree getCompactTree() {
+		CompactTree compact = compactTree;
+		if (compact == null) {
+			compact = new CompactTree(this);
+			compactTree = compact;
+		}
+		return compact;
+	}
+
+	/**
+	 * Returns the root of the lexicographic tree
+	 * 
+	 * @return The root node
+	 */
+	TreeVertex getRoot() {
+		return root;
+	}
+
 	/*
 	 * PRIVATE METHODS
 	 */
@@ -0,0 +1,63 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class BitboardSolverTest {
+
+	private static final Set<String> EXPECTED_WORDS = new TreeSet<>(Arrays.asList(new String[] {"ces", "cesse", "cessent", "cresson", "ego", "encre",
+			"encres", "engonce", "engoncer", "engonces", "esse", "gens", "gent", "gesse", "gnose", "gosse", "nes", "net", "nos", "once",
+			"onces", "ose", "osent", "pre", "pres", "presse", "pressent", "ressent", "sec", "secs", "sen", "sent", "set", "son",
+			"songe", "songent", "sons", "tenson", "tensons", "tes"}));
+	private static LexicographicTree dictionary = null;
+	private static BoggleSolver solver;
+	private static BitboardSolver bitboardSolver;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		solver = new BoggleSolver(dictionary);
+		bitboardSolver = new BitboardSolver(dictionary);
+	}
+
+	@Test
+	void solveWikipediaExample() {
+		assertEquals(EXPECTED_WORDS, bitboardSolver.solve(4, "rhreypcswnsntego"));
+		assertEquals(EXPECTED_WORDS.size(), bitboardSolver.count(4, "rhreypcswnsntego"));
+	}
+
+	@Test
+	void solveRandomGridsSameAsBoggleSolver() {
+		for (int size = 1; size <= 8; size++) {
+			for (long seed = 0; seed < 10; seed++) {
+				String letters = LetterSampler.FRENCH.letters(size * size, seed);
+				assertEquals(solver.solve(size, letters), bitboardSolver.solve(size, letters), letters);
+			}
+		}
+	}
+
+	@Test
+	void solveOtherShapesSameAsBoggleSolver() {
+		for (Topology topology : new Topology[] {Topology.hexagonal(6, 6), Topology.torus(5, 5), Topology.rectangle(2, 32)}) {
+			String letters = LetterSampler.FRENCH.letters(topology.getCellCount(), 1);
+			assertEquals(solver.solve(topology, letters), bitboardSolver.solve(topology, letters));
+		}
+	}
+
+	@Test
+	void solveWithIncorrectArguments() {
+		assertThrows(IllegalArgumentException.class, () -> bitboardSolver.solve(9, LetterSampler.FRENCH.letters(81, 1)));
+		assertThrows(IllegalArgumentException.class, () -> bitboardSolver.solve(0, ""));
+		assertThrows(IllegalArgumentException.class, () -> bitboardSolver.solve(2, "abc"));
+		assertThrows(IllegalArgumentException.class, () -> bitboardSolver.count(2, "abcD"));
+		assertThrows(NullPointerException.class, () -> new BitboardSolver(null));
+	}
+}
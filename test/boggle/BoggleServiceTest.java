@@ -0,0 +1,116 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class BoggleServiceTest {
+
+	private static LexicographicTree dictionary = null;
+	private static BoggleSolver solver;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		solver = new BoggleSolver(dictionary);
+	}
+
+	@Test
+	void concurrentRequestsSameAsSolver() throws InterruptedException {
+		try (BoggleService service = new BoggleService(dictionary, 16, 8, 2)) {
+			ExecutorService clients = BoggleService.newRequestExecutor();
+			List<String> grids = new ArrayList<>();
+			List<CompletableFuture<Set<String>>> results = new ArrayList<>();
+			for (int i = 0; i < 200; i++) {
+				String letters = LetterSampler.FRENCH.letters(16, i);
+				grids.add(letters);
+				results.add(CompletableFuture.supplyAsync(() -> {
+					try {
+						return service.submit(4, letters).join();
+					} catch (InterruptedException e) {
+						throw new CompletionException(e);
+					}
+				}, clients));
+			}
+			for (int i = 0; i < grids.size(); i++) {
+				assertEquals(solver.solve(4, grids.get(i)), results.get(i).join());
+			}
+			clients.shutdown();
+			assertTrue(clients.awaitTermination(1, TimeUnit.MINUTES));
+
+			assertEquals(200, service.getCompletedRequests());
+			assertTrue(service.getBatchCount() >= 1 && service.getBatchCount() <= 200);
+			assertTrue(service.getLatencyPercentile(50) <= service.getLatencyPercentile(99));
+			assertTrue(service.getLatencyPercentile(100) > 0);
+		}
+	}
+
+	@Test
+	void invalidGridFailsOnlyItsRequest() throws InterruptedException {
+		try (BoggleService service = new BoggleService(dictionary)) {
+			CompletableFuture<Set<String>> invalid = service.submit(2, "abC");
+			CompletableFuture<Set<String>> valid = service.trySubmit(3, "ssssessss");
+			CompletionException exception = assertThrows(CompletionException.class, invalid::join);
+			assertTrue(exception.getCause() instanceof IllegalArgumentException);
+			assertEquals(Set.of("ses"), valid.join());
+			assertThrows(IllegalArgumentException.class, () -> service.submit(0, ""));
+			assertThrows(NullPointerException.class, () -> service.trySubmit(2, null));
+		}
+	}
+
+	@Test
+	void closedServiceRejectsRequests() {
+		BoggleService service = new BoggleService(dictionary);
+		service.close();
+		assertThrows(RejectedExecutionException.class, () -> service.submit(2, "abcd"));
+		assertThrows(RejectedExecutionException.class, () -> service.trySubmit(2, "abcd"));
+		assertEquals(0, service.getLatencyPercentile(50));
+		assertThrows(IllegalArgumentException.class, () -> new BoggleService(dictionary, 0, 1, 1));
+	}
+
+	@Test
+	void closeWhileSubmitting() throws Exception {
+		// Every request accepted by the service must complete, even when the service is closed while it is being offered
+		for (int run = 0; run < 20; run++) {
+			BoggleService service = new BoggleService(dictionary, 64, 8, 1);
+			ExecutorService clients = Executors.newFixedThreadPool(4);
+			List<CompletableFuture<Set<String>>> results = new CopyOnWriteArrayList<>();
+			CountDownLatch started = new CountDownLatch(4);
+			for (int i = 0; i < 4; i++) {
+				clients.execute(() -> {
+					started.countDown();
+					try {
+						while (true) {
+							results.add(service.trySubmit(4, LetterSampler.FRENCH.letters(16, results.size())));
+						}
+					} catch (RejectedExecutionException e) {
+						// The service is closed
+					}
+				});
+			}
+			started.await();
+			Thread.sleep(5);
+			service.close();
+			clients.shutdown();
+			assertTrue(clients.awaitTermination(1, TimeUnit.MINUTES));
+			for (var result : results) {
+				result.exceptionally(e -> null).get(10, TimeUnit.SECONDS);
+			}
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class BoggleSolverTest {
+
+	private static final Set<String> EXPECTED_WORDS = new TreeSet<>(Arrays.asList(new String[] {"ces", "cesse", "cessent", "cresson", "ego", "encre",
+			"encres", "engonce", "engoncer", "engonces", "esse", "gens", "gent", "gesse", "gnose", "gosse", "nes", "net", "nos", "once",
+			"onces", "ose", "osent", "pre", "pres", "presse", "pressent", "ressent", "sec", "secs", "sen", "sent", "set", "son",
+			"songe", "songent", "sons", "tenson", "tensons", "tes"}));
+	private static final String GRID_LETTERS = "rhreypcswnsntego";
+	private static final String GRID_10X10 = "eymmccsrltjttsdiraoarliuniepeousrcgoiseerreeistiedtomcteevcmkaualilaretneerectresieenspgizeoeceecuds";
+	private static LexicographicTree dictionary = null;
+	private static BoggleSolver solver;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		solver = new BoggleSolver(dictionary);
+	}
+
+	@Test
+	void solveWikipediaExample() {
+		assertEquals(EXPECTED_WORDS, solver.solve(4, GRID_LETTERS));
+		assertEquals(EXPECTED_WORDS.size(), solver.count(4, GRID_LETTERS));
+	}
+
+	@Test
+	void solveSameAsBoggle() {
+		Boggle boggle = new Boggle(10, GRID_10X10, dictionary);
+		assertEquals(boggle.solve(), solver.solve(10, GRID_10X10));
+	}
+
+	@Test
+	void solveRandomGridsSameAsBoggle() {
+		for (int i = 0; i < 20; i++) {
+			Boggle boggle = new Boggle(5, dictionary);
+			assertEquals(boggle.solve(), solver.solve(5, boggle.letters()));
+		}
+	}
+
+	@Test
+	void solveGridWithTilesSameAsBoggle() {
+		String[] tiles = {"qu","e","l","s","a","i","l","e","t","r","qu","e","s","o","n","t"};
+		Boggle boggle = Boggle.withTiles(4, tiles, dictionary);
+		Set<String> expected = boggle.solve();
+		assertTrue(expected.contains("quelle"));
+		assertEquals(expected, solver.solve(Topology.square(4), tiles));
+		assertEquals(expected.size(), solver.count(Topology.square(4), tiles));
+		assertEquals(expected.size(), solver.statistics(Topology.square(4), tiles).getWordCount());
+		// The tiles of a grid do not leak into the next one
+		assertEquals(EXPECTED_WORDS, solver.solve(4, GRID_LETTERS));
+	}
+
+	@Test
+	void solveWithPathsGivesValidPaths() {
+		Map<String, int[]> paths = solver.solveWithPaths(4, GRID_LETTERS);
+		assertEquals(EXPECTED_WORDS, paths.keySet());
+		for (Map.Entry<String, int[]> entry : paths.entrySet()) {
+			int[] path = entry.getValue();
+			StringBuilder word = new StringBuilder();
+			for (int i = 0; i < path.length; i++) {
+				int cell = path[i];
+				word.append(GRID_LETTERS.charAt(cell));
+				if (i > 0) {
+					assertTrue(Arrays.stream(Topology.square(4).getNeighbors(path[i - 1])).anyMatch(neighbor -> neighbor == cell));
+				}
+			}
+			assertEquals(entry.getKey(), word.toString());
+			assertEquals(path.length, Arrays.stream(path).distinct().count());
+		}
+	}
+
+	@Test
+	void solveWithAllPaths() {
+		List<String> words = new ArrayList<>();
+		List<int[]> paths = new ArrayList<>();
+		int count = solver.solveWithPaths(Topology.square(3), "ssssessss", true, (word, path) -> {
+			words.add(word);
+			paths.add(path);
+		});
+		assertEquals(1, count);
+		// "ses" : 8 cells for the first s, 7 remaining neighbors of the centre for the last one
+		assertEquals(56, words.size());
+		assertTrue(words.stream().allMatch("ses"::equals));
+		assertTrue(paths.stream().allMatch(path -> path.length == 3 && path[1] == 4));
+		assertEquals(1, solver.solveWithPaths(3, "ssssessss").size());
+	}
+
+	@Test
+	void solveWithDifferentWaysToWriteAWord() {
+		assertEquals(new TreeSet<>(Arrays.asList("ses")), solver.solve(3, "ssssessss"));
+	}
+
+	@Test
+	void solveGridWithSize1() {
+		assertEquals(0, solver.solve(1, "a").size());
+	}
+
+	@Test
+	void solveAllKeepsGridOrder() {
+		List<String> grids = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			grids.add(i % 2 == 0 ? GRID_LETTERS : "ssssessssaaaaaaa");
+		}
+		BatchResult<Set<String>> results = solver.solveAll(4, grids);
+		assertEquals(200, results.size());
+		for (int i = 0; i < grids.size(); i++) {
+			assertEquals(solver.solve(4, grids.get(i)), results.getResult(i));
+		}
+		assertTrue(results.getDurationNanos() > 0);
+		assertTrue(results.getGridsPerSecond() > 0);
+	}
+
+	@Test
+	void countAllWithArray() {
+		BatchResult<Integer> results = solver.countAll(4, GRID_LETTERS, GRID_LETTERS);
+		assertEquals(Arrays.asList(EXPECTED_WORDS.size(), EXPECTED_WORDS.size()), results.getResults());
+	}
+
+	@Test
+	void solveWithIncorrectArguments() {
+		assertThrows(IllegalArgumentException.class, () -> solver.solve(0, GRID_LETTERS));
+		assertThrows(IllegalArgumentException.class, () -> solver.solve(5, GRID_LETTERS));
+		assertThrows(IllegalArgumentException.class, () -> solver.solve(4, "lànqsdldq==lmdnl"));
+		assertThrows(NullPointerException.class, () -> solver.solve(4, null));
+	}
+
+	@Test
+	void createSolverWithIncorrectDictionary() {
+		assertThrows(NullPointerException.class, () -> new BoggleSolver(null));
+		assertThrows(IllegalArgumentException.class, () -> new BoggleSolver(new LexicographicTree()));
+	}
+
+	@Test
+	void statisticsWikipediaExample() {
+		BoggleStatistics statistics = solver.statistics(4, GRID_LETTERS);
+		int expectedScore = 0;
+		int[] expectedCountByLength = new int[9];
+		for (String word : EXPECTED_WORDS) {
+			expectedScore += BoggleStatistics.points(word.length());
+			expectedCountByLength[word.length()]++;
+		}
+		assertEquals(EXPECTED_WORDS.size(), statistics.getWordCount());
+		assertEquals(expectedScore, statistics.getScore());
+		assertEquals(8, statistics.getLongestWordLength());
+		assertEquals("engoncer", statistics.getLongestWord());
+		for (int length = 0; length < expectedCountByLength.length; length++) {
+			assertEquals(expectedCountByLength[length], statistics.getCountByLength(length));
+		}
+		assertEquals(0, statistics.getCountByLength(9));
+	}
+
+	@Test
+	void statisticsWithoutWords() {
+		BoggleStatistics statistics = solver.statistics(1, "a");
+		assertEquals(0, statistics.getWordCount());
+		assertEquals(0, statistics.getScore());
+		assertEquals(0, statistics.getLongestWordLength());
+		assertEquals("", statistics.getLongestWord());
+	}
+
+	@Test
+	void pointsOfOfficialRules() {
+		assertEquals(1, BoggleStatistics.points(3));
+		assertEquals(1, BoggleStatistics.points(4));
+		assertEquals(2, BoggleStatistics.points(5));
+		assertEquals(3, BoggleStatistics.points(6));
+		assertEquals(5, BoggleStatistics.points(7));
+		assertEquals(11, BoggleStatistics.points(8));
+		assertEquals(11, BoggleStatistics.points(15));
+	}
+
+	@Test
+	void statisticsAllSameAsStatistics() {
+		BatchResult<BoggleStatistics> results = solver.statisticsAll(10, GRID_10X10, GRID_10X10);
+		assertEquals(solver.count(10, GRID_10X10), results.getResult(1).getWordCount());
+		assertEquals(results.getResult(0).getScore(), results.getResult(1).getScore());
+	}
+}
@@ -7,7 +7,11 @@ import tree.LexicographicTree;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
 
@@ -230,6 +234,28 @@ public class BoggleTest {
 		expectedString += "r h r e\ny p c s\nw n s n\nt e g o\n";
 		assertEquals(expectedString, boggle4X4.toString());
 	}
+
+	@Test
+	void appendToSameAsToString() throws IOException {
+		StringBuilder before = new StringBuilder();
+		Boggle b = new Boggle(4, GRID_LETTERS, dictionary);
+		b.appendTo(before);
+		assertEquals("r h r e\ny p c s\nw n s n\nt e g o\n", before.toString());
+		assertEquals(before.toString(), b.toString());
+		StringBuilder after = new StringBuilder(">");
+		b.appendTo(after);
+		assertEquals(">" + b.toString(), after.toString());
+	}
+
+	@Test
+	void lettersAndToStringFollowSetLetter() {
+		Boggle b = new Boggle(4, GRID_LETTERS, dictionary);
+		assertSame(b.letters(), b.letters());
+		assertSame(b.toString(), b.toString());
+		b.setLetter(1, 2, 'q');
+		assertEquals("rhreypqswnsntego", b.letters());
+		assertEquals("r h r e\ny p q s\nw n s n\nt e g o\n", b.toString());
+	}
 	
 	
 	// 
@@ -298,4 +324,151 @@ public class BoggleTest {
 		assertEquals(100, counter);
 	}
 	
+	// setLetter
+	@Test
+	void setLetterReturnsAddedAndRemovedWords() {
+		Boggle b = new Boggle(4, GRID_LETTERS, dictionary);
+		Set<String> before = b.solve();
+		GridDelta delta = b.setLetter(3, 3, 'e');
+		Set<String> after = b.solve();
+		assertEquals("rhreypcswnsntege", b.letters());
+
+		Set<String> expectedAdded = new TreeSet<>(after);
+		expectedAdded.removeAll(before);
+		Set<String> expectedRemoved = new TreeSet<>(before);
+		expectedRemoved.removeAll(after);
+		assertEquals(expectedAdded, delta.getAddedWords());
+		assertEquals(expectedRemoved, delta.getRemovedWords());
+		assertTrue(delta.getRemovedWords().contains("songent"));
+		assertFalse(b.contains("songent"));
+	}
+
+	@Test
+	void setLetterSeveralTimes() {
+		Boggle b = new Boggle(10, grid10x10, dictionary);
+		Set<String> words = b.solve();
+		String replacements = "aeiostrnlu";
+		for (int i = 0; i < 30; i++) {
+			GridDelta delta = b.setLetter((i * 7) % 10, (i * 3) % 10, replacements.charAt(i % replacements.length()));
+			words.removeAll(delta.getRemovedWords());
+			words.addAll(delta.getAddedWords());
+			assertEquals(b.solve(), words);
+		}
+	}
+
+	@Test
+	void setLetterWithSameLetter() {
+		Boggle b = new Boggle(4, GRID_LETTERS, dictionary);
+		assertTrue(b.setLetter(0, 0, 'r').isEmpty());
+		assertEquals(EXPECTED_WORDS, b.solve());
+	}
+
+	@Test
+	void setLetterAfterDictionaryChange() {
+		LexicographicTree words = new LexicographicTree();
+		for (String word : new String[] {"ces", "cesse", "gens", "nos", "sec"}) {
+			words.insertWord(word);
+		}
+		Boggle b = new Boggle(4, GRID_LETTERS, words);
+		b.setLetter(0, 0, 'r');
+		// The words inserted take place before the others in the compacted dictionary, which numbers its words alphabetically
+		words.insertWord("aaa");
+		words.insertWord("bbb");
+		Set<String> before = b.solve();
+		GridDelta delta = b.setLetter(3, 3, 'e');
+		Set<String> after = b.solve();
+		Set<String> expectedAdded = new TreeSet<>(after);
+		expectedAdded.removeAll(before);
+		Set<String> expectedRemoved = new TreeSet<>(before);
+		expectedRemoved.removeAll(after);
+		assertEquals(expectedAdded, delta.getAddedWords());
+		assertEquals(expectedRemoved, delta.getRemovedWords());
+		assertFalse(delta.isEmpty());
+	}
+
+	@Test
+	void setLetterWithIncorrectArguments() {
+		Boggle b = new Boggle(4, GRID_LETTERS, dictionary);
+		assertThrows(IllegalArgumentException.class, () -> b.setLetter(4, 0, 'a'));
+		assertThrows(IllegalArgumentException.class, () -> b.setLetter(0, -1, 'a'));
+		assertThrows(IllegalArgumentException.class, () -> b.setLetter(0, 0, 'é'));
+	}
+
+	@Test
+	void containsSameAsSolveForAllDictionaryWords() throws IOException {
+		List<String> words = Files.readAllLines(Path.of("mots/dictionnaire_FR_sans_accents.txt"));
+		Boggle quGrid = Boggle.withTiles(3, new String[] {"qu","e","l","a","i","s","t","r","e"}, dictionary);
+		for (Boggle b : new Boggle[] {boggle4X4, quGrid}) {
+			Set<String> solution = b.solve();
+			for (String word : words) {
+				assertEquals(solution.contains(word), b.contains(word), word);
+			}
+		}
+	}
+
+	// containsAll
+	@Test
+	void containsAllExpectedWords() {
+		assertEquals(EXPECTED_WORDS, boggle4X4.containsAll(EXPECTED_WORDS));
+	}
+
+	@Test
+	void containsAllWithInvalidWords() {
+		Set<String> submitted = new TreeSet<>(Arrays.asList("songent", "SONS", "sOnS", "sono", "sont", "ses", "hello", "ci", "", "sons!", "céder"));
+		Set<String> expected = new TreeSet<>(Arrays.asList("songent", "SONS", "sOnS"));
+		assertEquals(expected, boggle4X4.containsAll(submitted));
+		for (String word : submitted) {
+			assertEquals(boggle4X4.contains(word), expected.contains(word), word);
+		}
+	}
+
+	@Test
+	void containsAllWithEmptyCollection() {
+		assertTrue(boggle4X4.containsAll(new TreeSet<>()).isEmpty());
+	}
+
+	@Test
+	void containsAllAfterSetLetter() {
+		Boggle b = new Boggle(4, GRID_LETTERS, dictionary);
+		b.setLetter(3, 3, 'e');
+		assertFalse(b.contains("songent"));
+		Set<String> found = b.containsAll(EXPECTED_WORDS);
+		assertFalse(found.contains("songent"));
+		for (String word : EXPECTED_WORDS) {
+			assertEquals(b.contains(word), found.contains(word), word);
+		}
+	}
+
+	// Multi-letter tiles
+	@Test
+	void solveGridWithQuTile() {
+		Boggle b = Boggle.withTiles(3, new String[] {"qu","e","l","a","i","s","t","r","e"}, dictionary);
+		Set<String> words = b.solve();
+		assertTrue(words.contains("quel"));
+		assertTrue(words.contains("quai"));
+		assertTrue(b.contains("QUELS"));
+		assertFalse(b.contains("qel"));
+		assertEquals("quelaistre", b.letters());
+		assertArrayEquals(new String[] {"qu","e","l","a","i","s","t","r","e"}, b.tiles());
+		assertEquals(words, b.containsAll(words));
+	}
+
+	@Test
+	void setLetterOnGridWithQuTile() {
+		Boggle b = Boggle.withTiles(3, new String[] {"qu","e","l","a","i","s","t","r","e"}, dictionary);
+		Set<String> words = b.solve();
+		GridDelta delta = b.setLetter(0, 0, 'f');
+		words.removeAll(delta.getRemovedWords());
+		words.addAll(delta.getAddedWords());
+		assertTrue(delta.getRemovedWords().contains("quel"));
+		assertEquals(b.solve(), words);
+		assertEquals("felaistre", b.letters());
+	}
+
+	@Test
+	void createBoggleWithIncorrectTiles() {
+		assertThrows(IllegalArgumentException.class, () -> Boggle.withTiles(2, new String[] {"qu","e","l"}, dictionary));
+		assertThrows(IllegalArgumentException.class, () -> Boggle.withTiles(2, new String[] {"qu","","l","a"}, dictionary));
+		assertThrows(IllegalArgumentException.class, () -> Boggle.withTiles(2, new String[] {"Qu","e","l","a"}, dictionary));
+	}
 }
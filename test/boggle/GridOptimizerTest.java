@@ -0,0 +1,78 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+public class GridOptimizerTest {
+	private static LexicographicTree dictionary = null;
+	private static BoggleSolver solver;
+	private static GridOptimizer optimizer;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		solver = new BoggleSolver(dictionary);
+		optimizer = new GridOptimizer(dictionary);
+	}
+
+	@Test
+	void incrementalScoreSameAsFullSolve() {
+		Random random = new Random(42);
+		byte[] cells = new byte[25];
+		for (int i = 0; i < cells.length; i++) {
+			cells[i] = (byte) random.nextInt(26);
+		}
+		IncrementalGrid grid = new IncrementalGrid(dictionary.getCompactTree(), Topology.square(5).neighbors(), cells);
+
+		for (int i = 0; i < 300; i++) {
+			int cell = random.nextInt(cells.length);
+			int letter = "esartinulo".charAt(random.nextInt(10)) - 'a';
+			grid.setLetter(cell, letter);
+			if (i % 3 == 0) {
+				grid.undo();
+			} else {
+				cells[cell] = (byte) letter;
+			}
+
+			StringBuilder letters = new StringBuilder();
+			for (byte c : cells) {
+				letters.append((char) ('a' + c));
+			}
+			BoggleStatistics statistics = solver.statistics(5, letters.toString());
+			assertEquals(statistics.getWordCount(), grid.wordCount());
+			assertEquals(statistics.getScore(), grid.score());
+		}
+	}
+
+	@Test
+	void optimizedGridIsBetterThanRandomGrids() {
+		String letters = optimizer.optimize(4, GridOptimizer.Objective.SCORE, 3000, 2, 7);
+		assertEquals(16, letters.length());
+		int bestRandomScore = 0;
+		for (int i = 0; i < 20; i++) {
+			bestRandomScore = Math.max(bestRandomScore, solver.statistics(4, new Boggle(4, dictionary).letters()).getScore());
+		}
+		assertTrue(solver.statistics(4, letters).getScore() > bestRandomScore);
+	}
+
+	@Test
+	void optimizeIsReproducible() {
+		String first = optimizer.optimize(4, GridOptimizer.Objective.WORD_COUNT, 500, 3, 1234);
+		String second = optimizer.optimize(4, GridOptimizer.Objective.WORD_COUNT, 500, 3, 1234);
+		assertEquals(first, second);
+	}
+
+	@Test
+	void optimizeWithIncorrectArguments() {
+		assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(0, GridOptimizer.Objective.SCORE, 10));
+		assertThrows(IllegalArgumentException.class, () -> optimizer.optimize(4, GridOptimizer.Objective.SCORE, 10, 0, 1));
+		assertThrows(NullPointerException.class, () -> new GridOptimizer(null));
+		assertThrows(IllegalArgumentException.class, () -> new GridOptimizer(new LexicographicTree()));
+	}
+}
@@ -0,0 +1,62 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+public class LargeGridSolverTest {
+
+	private static final String GRID_10X10 = "eymmccsrltjttsdiraoarliuniepeousrcgoiseerreeistiedtomcteevcmkaualilaretneerectresieenspgizeoeceecuds";
+	private static LexicographicTree dictionary = null;
+	private static BoggleSolver solver;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		solver = new BoggleSolver(dictionary);
+	}
+
+	@Test
+	void solveSameAsBoggleSolver() {
+		List<String> words = new ArrayList<>();
+		int count = new LargeGridSolver(dictionary).solve(10, GRID_10X10, words::add);
+		assertEquals(solver.solve(10, GRID_10X10), new TreeSet<>(words));
+		assertEquals(words.size(), count);
+	}
+
+	@Test
+	void solveWithSmallTilesSameAsBoggleSolver() {
+		for (int tileSize = 1; tileSize <= 4; tileSize++) {
+			List<String> words = new ArrayList<>();
+			new LargeGridSolver(dictionary, tileSize).solve(10, GRID_10X10, words::add);
+			// Each word is given once, even when it is found in several tiles
+			assertEquals(new TreeSet<>(words).size(), words.size());
+			assertEquals(solver.solve(10, GRID_10X10), new TreeSet<>(words));
+		}
+	}
+
+	@Test
+	void solveRectangularGrid() {
+		String letters = GRID_10X10.substring(0, 40);
+		List<String> words = new ArrayList<>();
+		new LargeGridSolver(dictionary, 3).solve(4, 10, letters, words::add);
+		assertEquals(solver.solve(Topology.rectangle(4, 10), letters), new TreeSet<>(words));
+	}
+
+	@Test
+	void solveWithIncorrectArguments() {
+		LargeGridSolver largeSolver = new LargeGridSolver(dictionary);
+		assertThrows(IllegalArgumentException.class, () -> largeSolver.solve(0, "", w -> {}));
+		assertThrows(IllegalArgumentException.class, () -> largeSolver.solve(2, "abc", w -> {}));
+		assertThrows(IllegalArgumentException.class, () -> largeSolver.solve(2, "abcD", w -> {}));
+		assertThrows(NullPointerException.class, () -> largeSolver.solve(2, "abcd", null));
+		assertThrows(NullPointerException.class, () -> new LargeGridSolver(null));
+	}
+}
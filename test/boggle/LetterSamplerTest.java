@@ -0,0 +1,66 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+public class LetterSamplerTest {
+
+	private static LexicographicTree dictionary = null;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+	}
+
+	@Test
+	void sameSeedGivesSameLetters() {
+		assertEquals(LetterSampler.FRENCH.letters(100, 7), LetterSampler.FRENCH.letters(100, 7));
+		assertNotEquals(LetterSampler.FRENCH.letters(100, 7), LetterSampler.FRENCH.letters(100, 8));
+		assertEquals(new Boggle(5, 123L, dictionary).letters(), new Boggle(5, 123L, dictionary).letters());
+		assertEquals(new Boggle(Topology.hexagonal(3, 4), 9L, dictionary).letters(), LetterSampler.FRENCH.letters(12, 9));
+	}
+
+	@Test
+	void fillSameAsLetters() {
+		byte[] cells = new byte[50];
+		LetterSampler.FRENCH.fill(cells, new SplittableRandom(3));
+		String letters = LetterSampler.FRENCH.letters(50, 3);
+		for (int i = 0; i < cells.length; i++) {
+			assertEquals(letters.charAt(i), (char) ('a' + cells[i]));
+		}
+	}
+
+	@Test
+	void lettersFollowTheWeights() {
+		double[] weights = new double[26];
+		weights[0] = 1;
+		weights[4] = 3;
+		weights[25] = 4;
+		LetterSampler sampler = new LetterSampler(weights);
+		int[] counts = new int[26];
+		SplittableRandom random = new SplittableRandom(11);
+		int samples = 800_000;
+		for (int i = 0; i < samples; i++) {
+			counts[sampler.nextLetter(random)]++;
+		}
+		assertEquals(samples / 8, counts[0], samples / 100);
+		assertEquals(samples * 3 / 8, counts[4], samples / 100);
+		assertEquals(samples / 2, counts[25], samples / 100);
+		assertEquals(samples, counts[0] + counts[4] + counts[25]);
+	}
+
+	@Test
+	void createSamplerWithIncorrectWeights() {
+		assertThrows(IllegalArgumentException.class, () -> new LetterSampler(new double[25]));
+		assertThrows(IllegalArgumentException.class, () -> new LetterSampler(new double[26]));
+		double[] negative = new double[26];
+		negative[3] = -1;
+		assertThrows(IllegalArgumentException.class, () -> new LetterSampler(negative));
+	}
+}
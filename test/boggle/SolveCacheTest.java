@@ -0,0 +1,76 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Set;
+
+public class SolveCacheTest {
+
+	private static final String GRID_LETTERS = "rhreypcswnsntego";
+	// The same grid turned a quarter clockwise, and mirrored left to right
+	private static final String ROTATED_GRID = "twyrenphgscronse";
+	private static final String MIRRORED_GRID = "erhrscpynsnwoget";
+	private static LexicographicTree dictionary = null;
+	private static BoggleSolver solver;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		solver = new BoggleSolver(dictionary);
+	}
+
+	@Test
+	void symmetricGridsShareOneEntry() {
+		SolveCache cache = new SolveCache(dictionary, 10);
+		Set<String> words = cache.solve(4, GRID_LETTERS);
+		assertEquals(solver.solve(4, GRID_LETTERS), words);
+		assertSame(words, cache.solve(4, ROTATED_GRID));
+		assertSame(words, cache.solve(4, MIRRORED_GRID));
+		assertEquals(solver.solve(4, ROTATED_GRID), words);
+		assertEquals(1, cache.size());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2 / 3.0, cache.getHitRate(), 1e-9);
+		assertThrows(UnsupportedOperationException.class, () -> words.add("mot"));
+	}
+
+	@Test
+	void canonicalFormOfAllSymmetries() {
+		String canonical = SolveCache.canonicalForm(4, GRID_LETTERS);
+		assertEquals(canonical, SolveCache.canonicalForm(4, ROTATED_GRID));
+		assertEquals(canonical, SolveCache.canonicalForm(4, MIRRORED_GRID));
+		assertEquals(canonical, SolveCache.canonicalForm(4, canonical));
+		assertEquals(16, canonical.length());
+		assertTrue(canonical.compareTo(GRID_LETTERS) <= 0);
+		assertEquals("a", SolveCache.canonicalForm(1, "a"));
+	}
+
+	@Test
+	void leastRecentlyUsedGridIsEvicted() {
+		SolveCache cache = new SolveCache(dictionary, 2);
+		cache.solve(3, "abcdefghi");
+		cache.solve(3, "ssssessss");
+		cache.solve(3, "abcdefghi");
+		cache.solve(3, "rhreypcsw");
+		assertEquals(2, cache.size());
+		assertEquals(1, cache.getEvictionCount());
+		cache.solve(3, "abcdefghi");
+		assertEquals(1, cache.getEvictionCount());
+		cache.solve(3, "ssssessss");
+		assertEquals(2, cache.getEvictionCount());
+	}
+
+	@Test
+	void solveWithIncorrectArguments() {
+		SolveCache cache = new SolveCache(dictionary, 2);
+		assertThrows(IllegalArgumentException.class, () -> cache.solve(0, ""));
+		assertThrows(IllegalArgumentException.class, () -> cache.solve(2, "abc"));
+		assertThrows(IllegalArgumentException.class, () -> cache.solve(2, "abcD"));
+		assertThrows(IllegalArgumentException.class, () -> new SolveCache(dictionary, 0));
+	}
+}
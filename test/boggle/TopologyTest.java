@@ -0,0 +1,122 @@
+package boggle;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+
+public class TopologyTest {
+	private static LexicographicTree dictionary = null;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+	}
+
+	private static int[] sorted(int[] values) {
+		int[] copy = values.clone();
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	@Test
+	void squareNeighbors() {
+		Topology topology = Topology.square(4);
+		assertSame(topology, Topology.square(4));
+		assertEquals(16, topology.getCellCount());
+		assertArrayEquals(new int[] {1, 4, 5}, sorted(topology.getNeighbors(0)));
+		assertArrayEquals(new int[] {0, 1, 2, 4, 6, 8, 9, 10}, sorted(topology.getNeighbors(5)));
+	}
+
+	@Test
+	void rectangleNeighbors() {
+		Topology topology = Topology.rectangle(2, 3);
+		assertEquals(2, topology.getLines());
+		assertEquals(3, topology.getColumns());
+		assertArrayEquals(new int[] {1, 3, 4}, sorted(topology.getNeighbors(0)));
+		assertArrayEquals(new int[] {0, 2, 3, 4, 5}, sorted(topology.getNeighbors(1)));
+	}
+
+	@Test
+	void torusNeighbors() {
+		Topology topology = Topology.torus(4, 4);
+		assertArrayEquals(new int[] {1, 3, 4, 5, 7, 12, 13, 15}, sorted(topology.getNeighbors(0)));
+		// On a 2x2 torus, every cell touches the 3 others once
+		assertArrayEquals(new int[] {1, 2, 3}, sorted(Topology.torus(2, 2).getNeighbors(0)));
+		assertEquals(0, Topology.torus(1, 1).getNeighbors(0).length);
+	}
+
+	@Test
+	void hexagonalNeighbors() {
+		Topology topology = Topology.hexagonal(3, 3);
+		// Odd lines are shifted to the right : they touch the cells on their right above and below
+		assertArrayEquals(new int[] {1, 2, 3, 5, 7, 8}, sorted(topology.getNeighbors(4)));
+		assertArrayEquals(new int[] {0, 1, 4, 6, 7}, sorted(topology.getNeighbors(3)));
+		// Even lines touch the cells on their left above and below
+		assertArrayEquals(new int[] {1, 3}, sorted(topology.getNeighbors(0)));
+		assertArrayEquals(new int[] {0, 2, 3, 4}, sorted(topology.getNeighbors(1)));
+	}
+
+	@Test
+	void customNeighbors() {
+		Topology line = Topology.custom(1, 3, new int[][] {{1}, {0, 2}, {1}});
+		assertArrayEquals(new int[] {0, 2}, line.getNeighbors(1));
+		assertThrows(IllegalArgumentException.class, () -> Topology.custom(1, 3, new int[][] {{1}, {2}, {1}}));
+		assertThrows(IllegalArgumentException.class, () -> Topology.custom(1, 2, new int[][] {{0}, {}}));
+		assertThrows(IllegalArgumentException.class, () -> Topology.custom(1, 2, new int[][] {{1}}));
+		assertThrows(IllegalArgumentException.class, () -> Topology.custom(1, 2, new int[][] {{1, 1}, {0}}));
+	}
+
+	@Test
+	void incorrectDimensions() {
+		assertThrows(IllegalArgumentException.class, () -> Topology.rectangle(0, 3));
+		assertThrows(IllegalArgumentException.class, () -> Topology.torus(3, -1));
+		assertThrows(IllegalArgumentException.class, () -> Topology.hexagonal(0, 0));
+		assertThrows(IllegalArgumentException.class, () -> Topology.square(65_536));
+		assertThrows(IllegalArgumentException.class, () -> Topology.rectangle(Integer.MAX_VALUE, 2));
+		assertThrows(IllegalArgumentException.class, () -> Topology.torus(20_000, 20_000));
+		assertThrows(IllegalArgumentException.class, () -> Topology.custom(Integer.MAX_VALUE, 1, new int[0][]));
+	}
+
+	@Test
+	void onlySmallTopologiesKept() {
+		assertSame(Topology.torus(10, 10), Topology.torus(10, 10));
+		Topology large = Topology.square(40);
+		assertNotSame(large, Topology.square(40));
+		assertArrayEquals(large.getNeighbors(41), Topology.square(40).getNeighbors(41));
+		assertEquals(1600, large.getCellCount());
+	}
+
+	@Test
+	void boggleOnRectangle() {
+		Boggle boggle = new Boggle(Topology.rectangle(2, 4), "sonsxxxx", dictionary);
+		assertEquals("s o n s\nx x x x\n", boggle.toString());
+		assertTrue(boggle.contains("sons"));
+		assertEquals(boggle.solve(), new BoggleSolver(dictionary).solve(Topology.rectangle(2, 4), "sonsxxxx"));
+		assertThrows(IllegalArgumentException.class, () -> new Boggle(Topology.rectangle(2, 4), "sons", dictionary));
+	}
+
+	@Test
+	void boggleOnTorus() {
+		// "son" only exists by wrapping from the last column to the first one
+		Boggle flat = new Boggle(Topology.rectangle(1, 3), "ons", dictionary);
+		Boggle torus = new Boggle(Topology.torus(1, 3), "ons", dictionary);
+		assertFalse(flat.contains("son"));
+		assertTrue(torus.contains("son"));
+		assertTrue(torus.solve().contains("son"));
+		assertEquals(torus.solve(), new BoggleSolver(dictionary).solve(Topology.torus(1, 3), "ons"));
+	}
+
+	@Test
+	void boggleOnHexagonalGrid() {
+		Boggle boggle = new Boggle(Topology.hexagonal(2, 2), "soxn", dictionary);
+		assertEquals("s o\n x n\n", boggle.toString());
+		assertTrue(boggle.contains("son"));
+		assertTrue(boggle.contains("nos"));
+		assertEquals(boggle.solve(), new BoggleSolver(dictionary).solve(Topology.hexagonal(2, 2), "soxn"));
+	}
+}
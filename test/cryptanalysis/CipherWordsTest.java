@@ -0,0 +1,52 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class CipherWordsTest {
+
+	@Test
+	void distinctWordsLongestFirst() {
+		CipherWords words = new CipherWords("  ABC DEFG AB ABC\nHIJ\tKLMNO DEFG ABC\r\n", 3);
+		assertEquals(4, words.size());
+		assertEquals(7, words.getTotalCount());
+		assertEquals("KLMNO", words.getWord(0));
+		assertEquals("DEFG", words.getWord(1));
+		assertEquals("ABC", words.getWord(2));
+		assertEquals("HIJ", words.getWord(3));
+		assertEquals(1, words.getCount(0));
+		assertEquals(2, words.getCount(1));
+		assertEquals(3, words.getCount(2));
+	}
+
+	@Test
+	void lettersAndPatterns() {
+		CipherWords words = new CipherWords("EL-LE XYYX", 3);
+		assertEquals("EL-LE", words.getWord(0));
+		assertArrayEquals(new byte[] {4, 11, 11, 4}, words.getLetters(0));
+		assertArrayEquals(new int[] {0, 1, 1, 0}, words.getPattern(0));
+		assertEquals(PatternIndex.patternKey("ELLE"), words.getPatternKey(0));
+		assertEquals(PatternIndex.patternKey("ELLE"), words.getPatternKey(1));
+	}
+
+	@Test
+	void patternsWithoutPunctuation() {
+		CipherWords words = new CipherWords("L'ABBA, 'XYZ 12AB.", 3);
+		assertEquals("L'ABBA,", words.getWord(0));
+		assertArrayEquals(new int[] {0, 1, 2, 2, 1}, words.getPattern(0));
+		assertEquals(PatternIndex.patternKey("LABBA"), words.getPatternKey(0));
+		for (int i = 0; i < words.size(); i++) {
+			assertEquals(words.getLetters(i).length, words.getPattern(i).length);
+		}
+		assertEquals("12AB.", words.getWord(1));
+		assertArrayEquals(new int[] {0, 1}, words.getPattern(1));
+	}
+
+	@Test
+	void noWords() {
+		assertEquals(0, new CipherWords("", 3).size());
+		assertEquals(0, new CipherWords(" A BC\n", 3).size());
+		assertEquals(2, new CipherWords(" A BC\n", 1).size());
+	}
+}
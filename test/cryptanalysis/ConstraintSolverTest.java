@@ -0,0 +1,71 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+public class ConstraintSolverTest {
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+	private static LexicographicTree dictionary = null;
+	private static String cryptogram = null;
+
+	@BeforeAll
+	private static void initTestDictionary() throws IOException {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		cryptogram = Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes (cryptogram).txt"), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void solveSherlock() {
+		ConstraintSolver solver = new ConstraintSolver(cryptogram, dictionary);
+		assertEquals(DECODING_ALPHABET, solver.solve(60_000));
+		assertTrue(solver.isComplete());
+		assertTrue(solver.getLeftOutCount() > 0);
+		assertTrue(solver.getSolutionTime() >= 0);
+		assertTrue(solver.getNodeCount() > 0);
+	}
+
+	@Test
+	void solveExcerpt() {
+		ConstraintSolver solver = new ConstraintSolver(cryptogram.substring(0, 30_000), dictionary);
+		String alphabet = solver.solve(60_000);
+		int score = 0;
+		for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+			if (DECODING_ALPHABET.charAt(i) == alphabet.charAt(i)) score++;
+		}
+		assertTrue(score >= 20, "Moins de 20 correspondances trouvées [" + score + "]");
+	}
+
+	@Test
+	void solveWithPunctuation() {
+		// The punctuation around the words, even before them, must not shift their letters
+		String punctuated = cryptogram.replaceAll("(\\S{3,})", "$1,").replaceAll("(\\S{6,})", "'$1");
+		ConstraintSolver solver = new ConstraintSolver(punctuated, dictionary);
+		assertEquals(DECODING_ALPHABET, solver.solve(60_000));
+		assertTrue(solver.isComplete());
+	}
+
+	@Test
+	void noTimeBudget() {
+		ConstraintSolver solver = new ConstraintSolver(cryptogram, dictionary);
+		String alphabet = solver.solve(0);
+		assertEquals(26, alphabet.chars().filter(Character::isUpperCase).distinct().count());
+		assertFalse(solver.isComplete());
+	}
+
+	@Test
+	void incorrectArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver(null, dictionary));
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver("", dictionary));
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver(cryptogram, null));
+		assertThrows(IllegalArgumentException.class, () -> new ConstraintSolver(cryptogram, dictionary).solve(-1));
+	}
+}
@@ -8,6 +8,7 @@ import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.jupiter.api.BeforeAll;
 
@@ -175,4 +176,109 @@ public class DictionaryBasedAnalysisTest {
 		System.out.println(alphabet + "-----------------------");
 		assertTrue(score >= 9, "Moins de 9 correspondances trouvées [" + score + "]");
 	}
+
+	@Test
+	void guessApproximatedAlphabetInParallel() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+		ForkJoinPool singlePool = new ForkJoinPool(1);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			String alphabet = dba.guessApproximatedAlphabet(LETTERS, singlePool);
+			int score = 0;
+			for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+				if (DECODING_ALPHABET.charAt(i) == alphabet.charAt(i)) score++;
+			}
+			assertTrue(score >= 9, "Moins de 9 correspondances trouvées [" + score + "]");
+			assertEquals(alphabet, dba.guessApproximatedAlphabet(LETTERS, pool));
+		} finally {
+			singlePool.shutdown();
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void guessAlphabetInParallelWithIncorrectArguments() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+		assertThrows(NullPointerException.class, () -> dba.guessApproximatedAlphabet(LETTERS, null));
+		assertThrows(NullPointerException.class, () -> dba.guessApproximatedAlphabet(null, ForkJoinPool.commonPool()));
+		assertThrows(IllegalArgumentException.class, () -> dba.guessApproximatedAlphabet("ABC", ForkJoinPool.commonPool()));
+	}
+
+	@Test
+	void guessAlphabetByBeamSearch() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+		assertEquals(DECODING_ALPHABET, dba.guessAlphabetByBeamSearch(LETTERS, 3, 2, 60_000));
+		String alphabet = dba.guessAlphabetByBeamSearch("ZISHNFOBMAVQLPEUGWXTDYRJKC", 1, 1, 0);
+		assertEquals(26, alphabet.chars().filter(Character::isUpperCase).distinct().count());
+	}
+
+	@Test
+	void guessAlphabetByBeamSearchWithIncorrectArguments() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+		assertThrows(IllegalArgumentException.class, () -> dba.guessAlphabetByBeamSearch(LETTERS, 0, 2, 1000));
+		assertThrows(IllegalArgumentException.class, () -> dba.guessAlphabetByBeamSearch(LETTERS, 3, 0, 1000));
+		assertThrows(IllegalArgumentException.class, () -> dba.guessAlphabetByBeamSearch(LETTERS, 3, 2, -1));
+		assertThrows(IllegalArgumentException.class, () -> dba.guessAlphabetByBeamSearch("ABC", 3, 2, 1000));
+	}
+
+	@Test
+	void guessStartAlphabet() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary);
+		String startAlphabet = dba.guessStartAlphabet();
+		assertEquals(26, startAlphabet.chars().filter(Character::isUpperCase).distinct().count());
+		int score = 0;
+		for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+			if (DECODING_ALPHABET.charAt(i) == startAlphabet.charAt(i)) score++;
+		}
+		assertTrue(score >= 12, "Moins de 12 correspondances trouvées [" + score + "]");
+		assertEquals(DECODING_ALPHABET.charAt(SubstitutionEngine.letterIndex('M')), startAlphabet.charAt(SubstitutionEngine.letterIndex('M')));
+	}
+
+	@Test
+	void guessApproximatedAlphabetFromStartAlphabet() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText.substring(0, 5_000), dictionary);
+		dba.guessApproximatedAlphabet(LETTERS);
+		int iterationCount = dba.getIterationCount();
+		assertTrue(iterationCount > 0);
+		String alphabet = dba.guessApproximatedAlphabet(dba.guessStartAlphabet());
+		assertTrue(dba.getIterationCount() < iterationCount);
+		int score = 0;
+		for (int i = 0; i < DECODING_ALPHABET.length(); i++) {
+			if (DECODING_ALPHABET.charAt(i) == alphabet.charAt(i)) score++;
+		}
+		assertTrue(score >= 9, "Moins de 9 correspondances trouvées [" + score + "]");
+	}
+
+	@Test
+	void guessApproximatedAlphabetFromOtherAlphabet() {
+		// The word examined when an alphabet is accepted must be the one flagged as consulted, not the first word studied again from the new alphabet :
+		// from this alphabet and excerpt, flagging the first word instead leads to another alphabet
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText.substring(102_558, 103_006), dictionary);
+		assertEquals("VNSRBIQLWOZUEJMTYGCPDKHXAF", dba.guessApproximatedAlphabet("VNSTBPLQWFZUEJMRYGCIDKHXAO"));
+	}
+
+	@Test
+	void guessApproximatedAlphabetWithPunctuation() {
+		// The punctuation must not shift the letters of the words : followed by commas, the words give the same alphabet
+		String excerpt = cryptogramText.substring(0, 20_000);
+		String alphabet = new DictionaryBasedAnalysis(excerpt, dictionary).guessApproximatedAlphabet(LETTERS);
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(excerpt.replaceAll("(\\S{3,})", "$1,"), dictionary);
+		assertEquals(alphabet, dba.guessApproximatedAlphabet(LETTERS));
+	}
+
+	@Test
+	void guessApproximatedAlphabetWithValidityCache() {
+		DictionaryBasedAnalysis dba = new DictionaryBasedAnalysis(cryptogramText, dictionary, 1 << 20);
+		assertEquals(0, dba.getCacheHitRate(), 0.0);
+		assertEquals(new DictionaryBasedAnalysis(cryptogramText, dictionary).guessApproximatedAlphabet(LETTERS), dba.guessApproximatedAlphabet(LETTERS));
+		long hits = dba.getCacheHitCount();
+		long misses = dba.getCacheMissCount();
+		assertTrue(misses > 0);
+		// The second analysis decodes the same words again, which are mostly still in the cache
+		dba.guessApproximatedAlphabet(LETTERS);
+		assertTrue(dba.getCacheHitCount() - hits > dba.getCacheMissCount() - misses);
+		assertTrue(dba.getCacheHitRate() > 0 && dba.getCacheHitRate() < 1);
+		assertEquals(0, new DictionaryBasedAnalysis(cryptogramText, dictionary).getCacheMissCount());
+		assertThrows(IllegalArgumentException.class, () -> new DictionaryBasedAnalysis(cryptogramText, dictionary, -1));
+	}
 }
@@ -0,0 +1,92 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.LexicographicTree;
+
+public class PatternIndexTest {
+	private static LexicographicTree dictionary = null;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+	}
+
+	@Test
+	void patternKey() {
+		assertEquals(PatternIndex.patternKey("ELLE"), PatternIndex.patternKey("otto"));
+		assertEquals(PatternIndex.patternKey("ABCDEFGHIJKLMNOP"), PatternIndex.patternKey("ponmlkjihgfedcba"));
+		assertNotEquals(PatternIndex.patternKey("ELLE"), PatternIndex.patternKey("ELLES"));
+		assertNotEquals(PatternIndex.patternKey("ELLE"), PatternIndex.patternKey("ABCD"));
+		assertNotEquals(PatternIndex.patternKey("ABAB"), PatternIndex.patternKey("ABBA"));
+	}
+
+	@Test
+	void compatibleWords() {
+		PatternIndex index = PatternIndex.of(dictionary);
+		List<String> words = index.getCompatibleWords("XYYX");
+		assertTrue(words.contains("elle"));
+		assertFalse(words.contains("aller"));
+		for (String word : words) {
+			assertEquals(4, word.length());
+			assertEquals(word.charAt(0), word.charAt(3));
+			assertEquals(word.charAt(1), word.charAt(2));
+			assertNotEquals(word.charAt(0), word.charAt(1));
+		}
+		for (int i = 1; i < words.size(); i++) {
+			assertTrue(words.get(i - 1).compareTo(words.get(i)) < 0);
+		}
+		assertEquals(words.size(), index.countCompatibleWords("ABBA"));
+	}
+
+	@Test
+	void compatibleLongWords() {
+		PatternIndex index = PatternIndex.of(dictionary);
+		String word = "anticonstitutionnellement";
+		assertTrue(index.getCompatibleWords(word.toUpperCase()).contains(word));
+		for (String compatibleWord : index.getCompatibleWords(word)) {
+			assertEquals(PatternIndex.patternKey(word), PatternIndex.patternKey(compatibleWord));
+			assertEquals(word.length(), compatibleWord.length());
+		}
+	}
+
+	@Test
+	void noCompatibleWord() {
+		PatternIndex index = PatternIndex.of(dictionary);
+		assertTrue(index.getCompatibleWords("AAAAAAAAAAAAAAAAAAAAA").isEmpty());
+		assertEquals(0, index.countCompatibleWords(""));
+	}
+
+	@Test
+	void sharedIndex() {
+		assertSame(PatternIndex.of(dictionary), PatternIndex.of(dictionary));
+		assertThrows(NullPointerException.class, () -> PatternIndex.of(null));
+	}
+
+	@Test
+	void indexDroppedAfterInsertion() throws InterruptedException {
+		LexicographicTree tree = new LexicographicTree();
+		tree.insertWord("elle");
+		tree.insertWord("otto");
+		PatternIndex index = PatternIndex.of(tree);
+		assertEquals(2, index.countCompatibleWords("ABBA"));
+		WeakReference<PatternIndex> oldIndex = new WeakReference<>(index);
+		index = null;
+
+		tree.insertWord("anna");
+		PatternIndex newIndex = PatternIndex.of(tree);
+		assertNotSame(newIndex, oldIndex.get());
+		assertEquals(3, newIndex.countCompatibleWords("ABBA"));
+		for (int i = 0; i < 50 && oldIndex.get() != null; i++) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertNull(oldIndex.get());
+	}
+}
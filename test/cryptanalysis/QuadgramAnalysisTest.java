@@ -0,0 +1,69 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class QuadgramAnalysisTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+	private static QuadgramStatistics statistics = null;
+	private static String cryptogram = null;
+
+	@BeforeAll
+	private static void initTestDictionary() throws IOException {
+		statistics = new QuadgramStatistics(Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes.txt"), StandardCharsets.UTF_8));
+		cryptogram = Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes (cryptogram).txt"), StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void scoreAlphabet() {
+		QuadgramAnalysis analysis = new QuadgramAnalysis(cryptogram, statistics);
+		assertEquals(statistics.score(DictionaryBasedAnalysis.applySubstitution(cryptogram, DECODING_ALPHABET)), analysis.score(DECODING_ALPHABET), 1e-3);
+		assertTrue(analysis.score(DECODING_ALPHABET) > analysis.score(LETTERS));
+		assertEquals(analysis.score(DECODING_ALPHABET), analysis.score(DECODING_ALPHABET.toLowerCase()));
+	}
+
+	@Test
+	void climbFromCloseAlphabet() {
+		QuadgramAnalysis analysis = new QuadgramAnalysis(cryptogram, statistics);
+		// Four letters swapped
+		assertEquals(DECODING_ALPHABET, analysis.climb("VNSTBIQLKOZUEJMRYGCPDWHXFA"));
+		assertEquals(DECODING_ALPHABET, analysis.climb(DECODING_ALPHABET));
+	}
+
+	@Test
+	void climbWithRestarts() {
+		QuadgramAnalysis analysis = new QuadgramAnalysis(cryptogram, statistics);
+		ForkJoinPool singlePool = new ForkJoinPool(1);
+		ForkJoinPool pool = new ForkJoinPool(3);
+		try {
+			String alphabet = analysis.climbWithRestarts(4, 42, singlePool);
+			assertEquals(DECODING_ALPHABET, alphabet);
+			assertEquals(alphabet, analysis.climbWithRestarts(4, 42, pool));
+		} finally {
+			singlePool.shutdown();
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	void incorrectArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new QuadgramAnalysis(null, statistics));
+		assertThrows(IllegalArgumentException.class, () -> new QuadgramAnalysis("", statistics));
+		assertThrows(IllegalArgumentException.class, () -> new QuadgramAnalysis(cryptogram, null));
+		QuadgramAnalysis analysis = new QuadgramAnalysis(cryptogram, statistics);
+		assertThrows(IllegalArgumentException.class, () -> analysis.score("ABC"));
+		assertThrows(IllegalArgumentException.class, () -> analysis.climb("AACDEFGHIJKLMNOPQRSTUVWXYZ"));
+		assertThrows(IllegalArgumentException.class, () -> analysis.climb(null));
+		assertThrows(IllegalArgumentException.class, () -> analysis.climbWithRestarts(0, 42, ForkJoinPool.commonPool()));
+		assertThrows(NullPointerException.class, () -> analysis.climbWithRestarts(4, 42, null));
+	}
+}
@@ -0,0 +1,44 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class QuadgramStatisticsTest {
+
+	@Test
+	void countQuadgrams() {
+		QuadgramStatistics statistics = new QuadgramStatistics("C'est là, c'est là !");
+		// CESTLACESTLA
+		assertEquals(9, statistics.getQuadgramTotal());
+		assertEquals(Math.log10(2 / 9.0), statistics.getLogProbability("cest"), 1e-6);
+		assertEquals(Math.log10(1 / 9.0), statistics.getLogProbability("ACES"), 1e-6);
+		assertEquals(Math.log10(0.01 / 9), statistics.getLogProbability("ZZZZ"), 1e-6);
+	}
+
+	@Test
+	void scoreText() {
+		QuadgramStatistics statistics = new QuadgramStatistics("la maison est dans la prairie, la maison est belle");
+		assertEquals(statistics.getLogProbability("MAIS") + statistics.getLogProbability("AISO") + statistics.getLogProbability("ISON"), statistics.score("Maison"), 1e-6);
+		assertEquals(statistics.score("ELLE"), statistics.score("é-l l.e"), 1e-6);
+		assertEquals(0.0, statistics.score("la"));
+		assertTrue(statistics.score("la maison") > statistics.score("xq wzkvjh"));
+	}
+
+	@Test
+	void scoreTable() {
+		QuadgramStatistics statistics = new QuadgramStatistics("la maison est dans la prairie, la maison est belle");
+		byte[] letters = QuadgramStatistics.encodeLetters("NBJTPO");
+		byte[] table = SubstitutionEngine.toTable("ZABCDEFGHIJKLMNOPQRSTUVWXY");
+		assertEquals(statistics.score("MAISON"), statistics.score(letters, table), 1e-6);
+	}
+
+	@Test
+	void incorrectArguments() {
+		assertThrows(IllegalArgumentException.class, () -> new QuadgramStatistics(null));
+		assertThrows(IllegalArgumentException.class, () -> new QuadgramStatistics("abc !"));
+		QuadgramStatistics statistics = new QuadgramStatistics("abcd");
+		assertThrows(IllegalArgumentException.class, () -> statistics.getLogProbability("abc"));
+		assertThrows(IllegalArgumentException.class, () -> statistics.getLogProbability("ab d"));
+	}
+}
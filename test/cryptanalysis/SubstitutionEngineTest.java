@@ -0,0 +1,51 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+public class SubstitutionEngineTest {
+	private static final String ENCODING_ALPHABET = "YESUMZRWFNVHOBJTGPCDLAIXQK"; // Sherlock
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+
+	@Test
+	void encode() {
+		assertArrayEquals(new byte[] {0, 25, SubstitutionEngine.SPACE, 1, SubstitutionEngine.NEWLINE, 2}, SubstitutionEngine.encode("Az, b\nc!"));
+		assertEquals(0, SubstitutionEngine.encode("").length);
+	}
+
+	@Test
+	void decode() {
+		SubstitutionEngine engine = new SubstitutionEngine("Demande renforts\nimmediatement !");
+		byte[] buffer = new byte[engine.length() + 10];
+		engine.decode(SubstitutionEngine.toTable(ENCODING_ALPHABET), buffer);
+		assertEquals("UMOYBUM PMBZJPDC\nFOOMUFYDMOMBD ", new String(buffer, 0, engine.length()));
+		assertEquals("DEMANDE RENFORTS\nIMMEDIATEMENT ", new SubstitutionEngine("UMOYBUM PMBZJPDC\nFOOMUFYDMOMBD ").decode(SubstitutionEngine.toTable(DECODING_ALPHABET)));
+		assertThrows(IllegalArgumentException.class, () -> engine.decode(SubstitutionEngine.toTable(ENCODING_ALPHABET), new byte[2]));
+	}
+
+	@Test
+	void sameAsApplySubstitution() {
+		String text = "Plus fort que Sherlock Holmes,\nMark Twain : 1907 !";
+		assertEquals(DictionaryBasedAnalysis.applySubstitution(text, ENCODING_ALPHABET), new SubstitutionEngine(text).decode(SubstitutionEngine.toTable(ENCODING_ALPHABET)));
+	}
+
+	@Test
+	void tables() {
+		byte[] table = SubstitutionEngine.toTable(DECODING_ALPHABET);
+		assertEquals('V' - 'A', table[0]);
+		assertEquals(DECODING_ALPHABET, SubstitutionEngine.toAlphabet(table));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionEngine.toTable("ABC"));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionEngine.toTable("YESUMZRWFNVHOBJTGPCDLAIXQJ"));
+		assertThrows(IllegalArgumentException.class, () -> SubstitutionEngine.toTable(DECODING_ALPHABET.toLowerCase()));
+		assertThrows(NullPointerException.class, () -> SubstitutionEngine.toTable(null));
+	}
+
+	@Test
+	void letterIndex() {
+		assertEquals(0, SubstitutionEngine.letterIndex('a'));
+		assertEquals(25, SubstitutionEngine.letterIndex('Z'));
+		assertEquals(-1, SubstitutionEngine.letterIndex(' '));
+		assertEquals(-1, SubstitutionEngine.letterIndex('é'));
+	}
+}
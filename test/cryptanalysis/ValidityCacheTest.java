@@ -0,0 +1,87 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+public class ValidityCacheTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static CompactTree dictionary = null;
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt").getCompactTree();
+	}
+
+	@Test
+	void hitsAndMisses() {
+		ValidityCache cache = new ValidityCache(dictionary, 1024);
+		byte[] identity = SubstitutionEngine.toTable(LETTERS);
+		byte[] maison = SubstitutionEngine.encode("maison");
+		assertTrue(cache.isValidWord(maison, identity));
+		assertTrue(cache.isValidWord(maison, identity));
+		assertFalse(cache.isValidWord(SubstitutionEngine.encode("mqison"), identity));
+		assertFalse(cache.isValidWord(SubstitutionEngine.encode("mqison"), identity));
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0.5, cache.getHitRate());
+	}
+
+	@Test
+	void longWordsNotCached() {
+		ValidityCache cache = new ValidityCache(dictionary, 1024);
+		byte[] identity = SubstitutionEngine.toTable(LETTERS);
+		byte[] word = SubstitutionEngine.encode("anticonstitutionnellement");
+		assertTrue(cache.isValidWord(word, identity));
+		assertTrue(cache.isValidWord(word, identity));
+		assertEquals(0, cache.getHitCount() + cache.getMissCount());
+		assertEquals(0.0, cache.getHitRate());
+	}
+
+	@Test
+	void sameAnswersAsDictionary() {
+		ValidityCache cache = new ValidityCache(dictionary, 16);
+		SplittableRandom random = new SplittableRandom(3);
+		byte[] identity = SubstitutionEngine.toTable(LETTERS);
+		String[] words = {"elle", "otto", "maison", "arbre", "zzz", "abc", "table", "tables", "ceci", "cela"};
+		for (int i = 0; i < 2000; i++) {
+			String word = random.nextInt(4) == 0 ? randomWord(random) : words[random.nextInt(words.length)];
+			int node = dictionary.find(word);
+			boolean expected = node != CompactTree.NO_NODE && dictionary.isWord(node);
+			assertEquals(expected, cache.isValidWord(SubstitutionEngine.encode(word), identity), word);
+		}
+		assertTrue(cache.getHitCount() > 0);
+	}
+
+	@Test
+	void scoringWithCache() {
+		CipherWords cipherWords = new CipherWords("UMOYBUM PMBZJPDC FOOMUFYDMOMBD MD YD PMJOYSDMZ MD YDFYQ", 3);
+		ValidityCache cache = new ValidityCache(dictionary, 256);
+		byte[] table = SubstitutionEngine.toTable("VNSTBIQLWOZUEJMRYGCPDKHXAF");
+		WordValidity cachedValidity = new WordValidity(cipherWords, cache, table);
+		WordValidity validity = new WordValidity(cipherWords, dictionary, table);
+		assertEquals(validity.getInvalidCount(), cachedValidity.getInvalidCount());
+		byte[] identity = SubstitutionEngine.toTable(LETTERS);
+		assertEquals(validity.countInvalidWords(identity), cachedValidity.countInvalidWords(identity));
+	}
+
+	@Test
+	void incorrectCapacity() {
+		assertThrows(IllegalArgumentException.class, () -> new ValidityCache(dictionary, 0));
+		assertThrows(IllegalArgumentException.class, () -> new ValidityCache(dictionary, (1 << 30) + 1));
+	}
+
+	private static String randomWord(SplittableRandom random) {
+		char[] word = new char[random.nextInt(1, 9)];
+		for (int i = 0; i < word.length; i++) {
+			word[i] = (char) ('a' + random.nextInt(26));
+		}
+		return new String(word);
+	}
+}
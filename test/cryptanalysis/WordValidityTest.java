@@ -0,0 +1,79 @@
+package cryptanalysis;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import tree.CompactTree;
+import tree.LexicographicTree;
+
+public class WordValidityTest {
+	private static final String LETTERS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final String DECODING_ALPHABET = "VNSTBIQLWOZUEJMRYGCPDKHXAF"; // Sherlock
+	private static CompactTree dictionary = null;
+	private static CipherWords words = null;
+
+	@BeforeAll
+	private static void initTestDictionary() throws IOException {
+		dictionary = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt").getCompactTree();
+		String cryptogram = Files.readString(Paths.get("txt/Plus fort que Sherlock Holmes (cryptogram).txt"), StandardCharsets.UTF_8);
+		words = new CipherWords(cryptogram.substring(0, 20_000), 3);
+	}
+
+	@Test
+	void validWords() {
+		WordValidity validity = new WordValidity(words, dictionary, SubstitutionEngine.toTable(DECODING_ALPHABET));
+		assertEquals(countInvalidWords(SubstitutionEngine.toTable(DECODING_ALPHABET)), validity.getInvalidCount());
+		assertTrue(validity.getInvalidCount() < words.size() / 10);
+		for (int i = 0; i < words.size(); i++) {
+			assertEquals(isWord(DictionaryBasedAnalysis.applySubstitution(words.getWord(i), DECODING_ALPHABET)), validity.isValid(i));
+		}
+	}
+
+	@Test
+	void incrementalCount() {
+		WordValidity validity = new WordValidity(words, dictionary, SubstitutionEngine.toTable(LETTERS));
+		byte[] table = SubstitutionEngine.toTable(DECODING_ALPHABET);
+		SplittableRandom random = new SplittableRandom(7);
+		for (int step = 0; step < 200; step++) {
+			byte[] newTable = table.clone();
+			for (int swap = random.nextInt(1, 4); swap > 0; swap--) {
+				int i = random.nextInt(26);
+				int j = random.nextInt(26);
+				byte letter = newTable[i];
+				newTable[i] = newTable[j];
+				newTable[j] = letter;
+			}
+			int expected = countInvalidWords(newTable);
+			assertEquals(expected, validity.countInvalidWords(newTable));
+			if (random.nextBoolean()) {
+				validity.setTable(newTable);
+				table = newTable;
+				assertEquals(expected, validity.getInvalidCount());
+			}
+		}
+	}
+
+	private static int countInvalidWords(byte[] table) {
+		String alphabet = SubstitutionEngine.toAlphabet(table);
+		int invalidCount = 0;
+		for (int i = 0; i < words.size(); i++) {
+			if (!isWord(DictionaryBasedAnalysis.applySubstitution(words.getWord(i), alphabet))) {
+				invalidCount++;
+			}
+		}
+		return invalidCount;
+	}
+
+	private static boolean isWord(String decodedWord) {
+		int node = dictionary.find(decodedWord.toLowerCase());
+		return node != CompactTree.NO_NODE && dictionary.isWord(node);
+	}
+}
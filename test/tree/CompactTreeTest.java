@@ -0,0 +1,74 @@
+package tree;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CompactTreeTest {
+	private static final String[] WORDS = new String[] { "aide", "as", "au", "aux", "bu", "bus", "but", "et", "ete" };
+	private static final LexicographicTree DICT = new LexicographicTree();
+
+	@BeforeAll
+	private static void initTestDictionary() {
+		for (int i = 0; i < WORDS.length; i++) {
+			DICT.insertWord(WORDS[i]);
+		}
+		DICT.insertWord("a-cote");
+	}
+
+	@Test
+	void wordsAreNumberedAlphabetically() {
+		CompactTree tree = DICT.getCompactTree();
+		assertEquals(WORDS.length, tree.wordCount());
+		for (int i = 0; i < WORDS.length; i++) {
+			assertEquals(WORDS[i], tree.word(i));
+			assertEquals(i, tree.wordId(tree.find(WORDS[i])));
+			assertEquals(WORDS[i].length(), tree.wordLength(i));
+		}
+	}
+
+	@Test
+	void findPrefixes() {
+		CompactTree tree = DICT.getCompactTree();
+		assertNotEquals(CompactTree.NO_NODE, tree.find("ai"));
+		assertFalse(tree.isWord(tree.find("ai")));
+		assertEquals(CompactTree.NO_NODE, tree.find("ab"));
+		assertEquals(CompactTree.NO_NODE, tree.find("a-"));
+		assertEquals(CompactTree.ROOT, tree.find(""));
+	}
+
+	@Test
+	void childMask() {
+		CompactTree tree = DICT.getCompactTree();
+		int mask = tree.childMask(tree.find("a"));
+		assertEquals((1 << ('i' - 'a')) | (1 << ('s' - 'a')) | (1 << ('u' - 'a')), mask);
+		int node = tree.child(tree.find("bu"), 't' - 'a');
+		assertEquals("but", tree.word(tree.wordId(node)));
+		assertEquals(tree.find("bu"), tree.parent(node));
+		assertEquals('t' - 'a', tree.letter(node));
+	}
+
+	@Test
+	void compactTreeIsRebuiltAfterInsertion() {
+		LexicographicTree dict = new LexicographicTree();
+		dict.insertWord("mot");
+		CompactTree first = dict.getCompactTree();
+		assertSame(first, dict.getCompactTree());
+		dict.insertWord("mots");
+		CompactTree second = dict.getCompactTree();
+		assertNotSame(first, second);
+		assertEquals(2, second.wordCount());
+	}
+
+	@Test
+	void compactCopyOfFullDictionary() {
+		LexicographicTree dict = new LexicographicTree("mots/dictionnaire_FR_sans_accents.txt");
+		CompactTree tree = dict.getCompactTree();
+		for (String word : dict.getWords("cha")) {
+			if (word.matches("[a-z]+")) {
+				assertTrue(tree.isWord(tree.find(word)), word);
+			}
+		}
+	}
+}